@@ -0,0 +1,140 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect recording the latency of the methods matched by {@link LoggingAspect#pointcut(java.util.Collection)}, in
+ * the LATENCY mode of {@code application.logging-aspect}.
+ * <p>
+ * Each method has a {@code method.latency} timer, tagged with the class it is called on and its name, publishing a
+ * percentile histogram to Prometheus. The class of a Spring Data repository is its interface, so inherited methods
+ * like {@code findAll} have a timer per repository. Only 1 call out of {@code sampleRate} is recorded in the
+ * timers, but every call is compared to the slowest ones of the current window, which are logged with their redacted
+ * arguments when they enter them, and exposed by the {@link SlowestCallsEndpoint}. The class of a call is only
+ * resolved for the sampled calls and the slowest ones.
+ */
+public class LatencyAspect implements MethodInterceptor {
+
+    private final Logger log = LoggerFactory.getLogger(LatencyAspect.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final int sampleRate;
+
+    private final SlowestCalls slowestCalls;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * The meter registry is resolved on the first recorded call, as advisors are created before the registry
+     * is customized.
+     */
+    public LatencyAspect(ObjectProvider<MeterRegistry> meterRegistryProvider, int sampleRate, int slowestCalls,
+            Duration slowestCallsWindow) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.slowestCalls = new SlowestCalls(slowestCalls, slowestCallsWindow);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long end = System.nanoTime();
+            long duration = end - start;
+            boolean sampled = sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+            boolean slow = slowestCalls.isCandidate(duration, end);
+            if (sampled || slow) {
+                record(invocation, duration, end, sampled, slow);
+            }
+        }
+    }
+
+    private void record(MethodInvocation invocation, long duration, long end, boolean sampled, boolean slow) {
+        Class<?> targetClass = getTargetClass(invocation);
+        if (sampled) {
+            getTimer(targetClass, invocation.getMethod()).record(duration, TimeUnit.NANOSECONDS);
+        }
+        if (slow) {
+            SlowestCalls.SlowCall slowCall = slowestCalls.offer(targetClass, invocation.getMethod(), invocation.getArguments(),
+                duration, end);
+            if (slowCall != null) {
+                log.warn("Slow call: {}", slowCall);
+            }
+        }
+    }
+
+    /**
+     * @return the slowest calls of the current and previous windows.
+     */
+    public SlowestCalls getSlowestCalls() {
+        return slowestCalls;
+    }
+
+    /**
+     * Get the class a method is called on: the repository interface for a Spring Data repository, whose target is
+     * the generic {@code SimpleJpaRepository}, or the target class otherwise.
+     */
+    static Class<?> getTargetClass(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.getMethod().getDeclaringClass();
+        }
+        if (target instanceof Advised) {
+            Class<?> repositoryInterface = null;
+            for (Class<?> proxiedInterface : ((Advised) target).getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(proxiedInterface)
+                    && (repositoryInterface == null || repositoryInterface.isAssignableFrom(proxiedInterface))) {
+                    repositoryInterface = proxiedInterface;
+                }
+            }
+            if (repositoryInterface != null) {
+                return repositoryInterface;
+            }
+        }
+        return AopUtils.getTargetClass(target);
+    }
+
+    private Timer getTimer(Class<?> targetClass, Method method) {
+        ConcurrentMap<Method, Timer> classTimers = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        Timer timer = classTimers.get(method);
+        if (timer == null) {
+            timer = classTimers.computeIfAbsent(method, key -> Timer.builder("method.latency")
+                .description("The latency of the methods of the application")
+                .tag("class", targetClass.getSimpleName())
+                .tag("method", key.getName())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(getMeterRegistry()));
+        }
+        return timer;
+    }
+
+    private MeterRegistry getMeterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = meterRegistryProvider.getObject();
+        }
+        return meterRegistry;
+    }
+}
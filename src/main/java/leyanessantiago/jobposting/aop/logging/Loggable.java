@@ -0,0 +1,17 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method, or all the methods of a class, to be logged by the {@link LoggingAspect}, whatever the
+ * packages configured in {@code application.logging-aspect.packages}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Loggable {
+}
@@ -2,98 +2,111 @@ package leyanessantiago.jobposting.aop.logging;
 
 import io.github.jhipster.config.JHipsterConstants;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterThrowing;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * It only applies to the beans of some packages and to the methods annotated with {@link Loggable}, see
+ * {@link #pointcut(Collection)}, and is only registered when {@code application.logging-aspect.enabled} is set,
+ * as in the "dev" profile. The {@link LoggingAspectSwitch} replaces it with an aspect only logging the exceptions
+ * while its logger isn't at debug level.
  */
-@Aspect
-public class LoggingAspect {
+public class LoggingAspect implements MethodInterceptor {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
-    }
+    private final boolean logCalls;
 
-    /**
-     * Pointcut that matches all repositories, services and Web REST endpoints.
-     */
-    @Pointcut("within(@org.springframework.stereotype.Repository *)" +
-        " || within(@org.springframework.stereotype.Service *)" +
-        " || within(@org.springframework.web.bind.annotation.RestController *)")
-    public void springBeanPointcut() {
-        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    public LoggingAspect(Environment env) {
+        this(env, true);
     }
 
     /**
-     * Pointcut that matches all Spring beans in the application's main packages.
+     * @param env the environment.
+     * @param logCalls whether the entered and exited methods are logged, or only the exceptions.
      */
-    @Pointcut("within(leyanessantiago.jobposting.repository..*)"+
-        " || within(leyanessantiago.jobposting.service..*)"+
-        " || within(leyanessantiago.jobposting.web.rest..*)")
-    public void applicationPackagePointcut() {
-        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    public LoggingAspect(Environment env, boolean logCalls) {
+        this.env = env;
+        this.logCalls = logCalls;
     }
 
     /**
-     * Advice that logs methods throwing exceptions.
+     * Pointcut that matches all repositories, services and Web REST endpoints of some packages, and all methods
+     * annotated with {@link Loggable}, directly or through their class.
      *
-     * @param joinPoint join point for advice.
-     * @param e exception.
+     * @param packages the packages of the logged Spring beans, including their sub-packages.
+     * @return the pointcut.
      */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            log.error("Exception in {}.{}() with cause = \'{}\' and exception = \'{}\'", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), e.getCause() != null? e.getCause() : "NULL", e.getMessage(), e);
-
-        } else {
-            log.error("Exception in {}.{}() with cause = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), e.getCause() != null? e.getCause() : "NULL");
+    public static Pointcut pointcut(Collection<String> packages) {
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forMethodAnnotation(Loggable.class))
+            .union(new AnnotationMatchingPointcut(Loggable.class, true));
+        if (!packages.isEmpty()) {
+            AspectJExpressionPointcut springBeanPointcut = new AspectJExpressionPointcut();
+            springBeanPointcut.setExpression(packages.stream()
+                .map(packageName -> "within(" + packageName + "..*)")
+                .collect(Collectors.joining(" || ", "(", ")")) +
+                " && (within(@org.springframework.stereotype.Repository *)" +
+                " || within(@org.springframework.stereotype.Service *)" +
+                " || within(@org.springframework.web.bind.annotation.RestController *))");
+            pointcut.union((Pointcut) springBeanPointcut);
         }
+        return pointcut;
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and when it throws an exception.
      *
-     * @param joinPoint join point for advice.
+     * @param invocation the method invocation.
      * @return result.
-     * @throws Throwable throws {@link IllegalArgumentException}.
+     * @throws Throwable the exception thrown by the method.
      */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
-    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}.{}() with argument[s] = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String typeName = invocation.getMethod().getDeclaringClass().getName();
+        String methodName = invocation.getMethod().getName();
+        boolean debug = logCalls && log.isDebugEnabled();
+        if (debug) {
+            log.debug("Enter: {}.{}() with argument[s] = {}", typeName, methodName, Arrays.toString(invocation.getArguments()));
         }
         try {
-            Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(), result);
+            Object result = invocation.proceed();
+            if (debug) {
+                log.debug("Exit: {}.{}() with result = {}", typeName, methodName, result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(joinPoint.getArgs()),
-                joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
-
+            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(invocation.getArguments()), typeName, methodName);
+            logException(typeName, methodName, e);
+            throw e;
+        } catch (Throwable e) {
+            logException(typeName, methodName, e);
             throw e;
         }
     }
+
+    private void logException(String typeName, String methodName, Throwable e) {
+        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
+            log.error("Exception in {}.{}() with cause = \'{}\' and exception = \'{}\'", typeName, methodName,
+                e.getCause() != null? e.getCause() : "NULL", e.getMessage(), e);
+
+        } else {
+            log.error("Exception in {}.{}() with cause = {}", typeName, methodName, e.getCause() != null? e.getCause() : "NULL");
+        }
+    }
 }
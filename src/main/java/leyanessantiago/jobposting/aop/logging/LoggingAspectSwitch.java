@@ -0,0 +1,132 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Switches the {@link LoggingAspect} on and off at runtime, following the level of its logger.
+ * <p>
+ * The advisor of the aspect is replaced, in the proxies it was added to, by an advisor only logging the exceptions
+ * while the logger of the aspect isn't at debug level, and put back once it is, so a switched off aspect neither
+ * checks the log level nor formats the arguments on each call, but still logs the exceptions. The level can be
+ * changed at runtime from the {@code /management/loggers} endpoint.
+ * <p>
+ * This post-processor isn't ordered, so it runs after the auto-proxy creator and sees the proxies it created.
+ */
+public class LoggingAspectSwitch implements BeanPostProcessor, SmartInitializingSingleton, DisposableBean, LoggerContextListener {
+
+    private final Logger log = LoggerFactory.getLogger(LoggingAspectSwitch.class);
+
+    private final Logger aspectLog = LoggerFactory.getLogger(LoggingAspect.class);
+
+    private final Advisor advisor;
+
+    private final Advisor exceptionAdvisor;
+
+    private final List<Advised> proxies = new ArrayList<>();
+
+    private boolean enabled = true;
+
+    /**
+     * @param advisor the advisor of the aspect.
+     * @param exceptionAdvisor the advisor replacing it while switched off, only logging the exceptions.
+     */
+    public LoggingAspectSwitch(Advisor advisor, Advisor exceptionAdvisor) {
+        this.advisor = advisor;
+        this.exceptionAdvisor = exceptionAdvisor;
+    }
+
+    @Override
+    public synchronized Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            Advised proxy = (Advised) bean;
+            if (proxy.indexOf(advisor) >= 0) {
+                proxies.add(proxy);
+                if (!enabled) {
+                    proxy.replaceAdvisor(advisor, exceptionAdvisor);
+                }
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (loggerFactory instanceof LoggerContext) {
+            ((LoggerContext) loggerFactory).addListener(this);
+        }
+        refresh();
+    }
+
+    @Override
+    public void destroy() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (loggerFactory instanceof LoggerContext) {
+            ((LoggerContext) loggerFactory).removeListener(this);
+        }
+    }
+
+    /**
+     * Switch the aspect on if its logger is at debug level, off otherwise.
+     */
+    public void refresh() {
+        setEnabled(aspectLog.isDebugEnabled());
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        for (Advised proxy : proxies) {
+            if (enabled) {
+                proxy.replaceAdvisor(exceptionAdvisor, advisor);
+            } else {
+                proxy.replaceAdvisor(advisor, exceptionAdvisor);
+            }
+        }
+        log.info("Logging aspect switched {} on {} beans", enabled ? "on" : "off", proxies.size());
+    }
+
+    @Override
+    public boolean isResetResistant() {
+        return true;
+    }
+
+    @Override
+    public void onStart(LoggerContext context) {
+        // Nothing to do, the aspect follows the levels once they are set.
+    }
+
+    @Override
+    public void onReset(LoggerContext context) {
+        refresh();
+    }
+
+    @Override
+    public void onStop(LoggerContext context) {
+        // Nothing to do, the proxies are left as they are.
+    }
+
+    @Override
+    public void onLevelChange(ch.qos.logback.classic.Logger logger, Level level) {
+        refresh();
+    }
+}
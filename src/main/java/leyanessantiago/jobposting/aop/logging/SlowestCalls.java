@@ -0,0 +1,204 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the slowest calls of the current time window, with their arguments redacted, and the ones of the previous
+ * window.
+ * <p>
+ * The calls are kept per window, so the slow calls of the startup don't hide the later ones. Calls faster than the
+ * fastest kept call are rejected with two volatile reads, see {@link #isCandidate(long, long)}, so only the calls
+ * entering the slowest ones render their arguments and take the lock.
+ */
+public class SlowestCalls {
+
+    private final int capacity;
+
+    private final long windowNanos;
+
+    private final PriorityQueue<SlowCall> calls = new PriorityQueue<>(Comparator.comparingLong(SlowCall::getDurationNanos));
+
+    private List<SlowCall> previousCalls = Collections.emptyList();
+
+    private volatile long thresholdNanos = -1;
+
+    private volatile long windowEndNanos;
+
+    public SlowestCalls(int capacity, Duration window) {
+        this.capacity = capacity;
+        this.windowNanos = Math.max(1, window.toNanos());
+        this.windowEndNanos = System.nanoTime() + windowNanos;
+    }
+
+    /**
+     * Check whether a call may be one of the slowest of its window, without taking the lock.
+     *
+     * @param durationNanos the duration of the call.
+     * @param nowNanos the end of the call, from {@link System#nanoTime()}.
+     * @return {@code true} if the call must be offered.
+     */
+    public boolean isCandidate(long durationNanos, long nowNanos) {
+        return capacity > 0 && (durationNanos > thresholdNanos || nowNanos - windowEndNanos >= 0);
+    }
+
+    /**
+     * Offer a call.
+     *
+     * @param targetClass the class the method was called on.
+     * @param method the method called.
+     * @param arguments the arguments of the call.
+     * @param durationNanos the duration of the call.
+     * @param nowNanos the end of the call, from {@link System#nanoTime()}.
+     * @return the kept call, or {@code null} if it isn't one of the slowest of its window.
+     */
+    public SlowCall offer(Class<?> targetClass, Method method, Object[] arguments, long durationNanos, long nowNanos) {
+        if (!isCandidate(durationNanos, nowNanos)) {
+            return null;
+        }
+        synchronized (calls) {
+            rotate(nowNanos);
+            if (calls.size() == capacity) {
+                if (durationNanos <= calls.peek().getDurationNanos()) {
+                    return null;
+                }
+                calls.poll();
+            }
+            SlowCall call = new SlowCall(targetClass.getSimpleName() + "." + method.getName(),
+                redact(arguments), durationNanos, Instant.now());
+            calls.add(call);
+            if (calls.size() == capacity) {
+                thresholdNanos = calls.peek().getDurationNanos();
+            }
+            return call;
+        }
+    }
+
+    /**
+     * @return the slowest calls of the current window, the slowest first.
+     */
+    public List<SlowCall> getCalls() {
+        synchronized (calls) {
+            rotate(System.nanoTime());
+            return sorted(calls);
+        }
+    }
+
+    /**
+     * @return the slowest calls of the previous window, the slowest first.
+     */
+    public List<SlowCall> getPreviousCalls() {
+        synchronized (calls) {
+            rotate(System.nanoTime());
+            return previousCalls;
+        }
+    }
+
+    /**
+     * @return the duration of a window.
+     */
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * Start a new window once the current one is over. The previous window is empty if no call ended it.
+     */
+    private void rotate(long nowNanos) {
+        long elapsedNanos = nowNanos - windowEndNanos;
+        if (elapsedNanos < 0) {
+            return;
+        }
+        previousCalls = elapsedNanos < windowNanos ? sorted(calls) : Collections.emptyList();
+        calls.clear();
+        thresholdNanos = -1;
+        windowEndNanos = nowNanos + windowNanos - elapsedNanos % windowNanos;
+    }
+
+    private static List<SlowCall> sorted(Collection<SlowCall> calls) {
+        List<SlowCall> result = new ArrayList<>(calls);
+        result.sort(Comparator.comparingLong(SlowCall::getDurationNanos).reversed());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Render arguments without their values, which may hold passwords, keys or personal data: only numbers,
+     * booleans and enums are kept, strings and collections are rendered with their length and other objects
+     * with their type.
+     */
+    static String redact(Object[] arguments) {
+        List<String> redacted = new ArrayList<>(arguments.length);
+        for (Object argument : arguments) {
+            redacted.add(redact(argument));
+        }
+        return redacted.stream().collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String redact(Object argument) {
+        if (argument == null || argument instanceof Number || argument instanceof Boolean || argument instanceof Enum) {
+            return String.valueOf(argument);
+        }
+        if (argument instanceof CharSequence) {
+            return "String(" + ((CharSequence) argument).length() + ")";
+        }
+        if (argument instanceof Collection) {
+            return argument.getClass().getSimpleName() + "(" + ((Collection<?>) argument).size() + ")";
+        }
+        if (argument instanceof Map) {
+            return argument.getClass().getSimpleName() + "(" + ((Map<?, ?>) argument).size() + ")";
+        }
+        return argument.getClass().getSimpleName();
+    }
+
+    /**
+     * A slow call.
+     */
+    public static final class SlowCall {
+
+        private final String method;
+
+        private final String arguments;
+
+        private final long durationNanos;
+
+        private final Instant date;
+
+        SlowCall(String method, String arguments, long durationNanos, Instant date) {
+            this.method = method;
+            this.arguments = arguments;
+            this.durationNanos = durationNanos;
+            this.date = date;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getArguments() {
+            return arguments;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public Instant getDate() {
+            return date;
+        }
+
+        @Override
+        public String toString() {
+            return method + "(" + arguments + ") took " + TimeUnit.NANOSECONDS.toMillis(durationNanos) + " ms at " + date;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Exposes the slowest calls recorded by the {@link LatencyAspect}, in its LATENCY mode, at
+ * {@code /management/slowestcalls}.
+ */
+@Endpoint(id = "slowestcalls")
+public class SlowestCallsEndpoint {
+
+    private final SlowestCalls slowestCalls;
+
+    public SlowestCallsEndpoint(SlowestCalls slowestCalls) {
+        this.slowestCalls = slowestCalls;
+    }
+
+    @ReadOperation
+    public SlowestCallsDescriptor slowestCalls() {
+        return new SlowestCallsDescriptor(slowestCalls.getWindow(), slowestCalls.getCalls(), slowestCalls.getPreviousCalls());
+    }
+
+    /**
+     * The slowest calls of the current and previous windows, the slowest first.
+     */
+    public static final class SlowestCallsDescriptor {
+
+        private final Duration window;
+
+        private final List<SlowestCalls.SlowCall> current;
+
+        private final List<SlowestCalls.SlowCall> previous;
+
+        SlowestCallsDescriptor(Duration window, List<SlowestCalls.SlowCall> current, List<SlowestCalls.SlowCall> previous) {
+            this.window = window;
+            this.current = current;
+            this.previous = previous;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public List<SlowestCalls.SlowCall> getCurrent() {
+            return current;
+        }
+
+        public List<SlowestCalls.SlowCall> getPrevious() {
+            return previous;
+        }
+    }
+}
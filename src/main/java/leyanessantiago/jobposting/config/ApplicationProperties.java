@@ -1,6 +1,13 @@
 package leyanessantiago.jobposting.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Properties specific to Jobposting.
@@ -11,4 +18,721 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final AuditWriter auditWriter = new AuditWriter();
+
+    private final AuditRetention auditRetention = new AuditRetention();
+
+    private final MailDelivery mailDelivery = new MailDelivery();
+
+    private final Map<String, AsyncExecutor> executors = new LinkedHashMap<>();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Cache cache = new Cache();
+
+    public AuditWriter getAuditWriter() {
+        return auditWriter;
+    }
+
+    public AuditRetention getAuditRetention() {
+        return auditRetention;
+    }
+
+    public MailDelivery getMailDelivery() {
+        return mailDelivery;
+    }
+
+    /**
+     * The named executors, by bean name, selectable with {@code @Async("beanName")}.
+     */
+    public Map<String, AsyncExecutor> getExecutors() {
+        return executors;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class AuditWriter {
+
+        /**
+         * What to do with an audit event when the queue of the writer is full.
+         */
+        public enum Backpressure {
+            /** Drop the event. */
+            DROP,
+            /** Wait up to {@code block-timeout-ms} for room in the queue, then drop the event. */
+            BLOCK,
+            /** Keep one event out of {@code sample-rate} once the queue is half full, drop it when full. */
+            SAMPLE
+        }
+
+        private boolean enabled = true;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 50;
+
+        private long flushIntervalMs = 1000;
+
+        private Backpressure backpressure = Backpressure.DROP;
+
+        private long blockTimeoutMs = 100;
+
+        private int sampleRate = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public Backpressure getBackpressure() {
+            return backpressure;
+        }
+
+        public void setBackpressure(Backpressure backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        public long getBlockTimeoutMs() {
+            return blockTimeoutMs;
+        }
+
+        public void setBlockTimeoutMs(long blockTimeoutMs) {
+            this.blockTimeoutMs = blockTimeoutMs;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class AuditRetention {
+
+        private boolean enabled = true;
+
+        private int retentionDays = 180;
+
+        private int partitionsAhead = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+    }
+
+    public static class MailDelivery {
+
+        private boolean enabled = true;
+
+        private int queueCapacity = 1000;
+
+        private int workers = 2;
+
+        private int batchSize = 20;
+
+        private int maxAttempts = 8;
+
+        private long initialBackoffMs = 5000;
+
+        private long maxBackoffMs = 3600000;
+
+        private long leaseMs = 300000;
+
+        private long pollIntervalMs = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        public long getLeaseMs() {
+            return leaseMs;
+        }
+
+        public void setLeaseMs(long leaseMs) {
+            this.leaseMs = leaseMs;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+    }
+
+    public static class AsyncExecutor {
+
+        /**
+         * What to do with a task when the queue of the executor is full.
+         */
+        public enum RejectionPolicy {
+            /** Throw a {@link java.util.concurrent.RejectedExecutionException}. */
+            ABORT,
+            /** Run the task in the submitting thread. */
+            CALLER_RUNS,
+            /** Drop the task. */
+            DISCARD,
+            /** Drop the oldest queued task, and queue this one. */
+            DISCARD_OLDEST
+        }
+
+        private int coreSize = 2;
+
+        private int maxSize = 8;
+
+        private int queueCapacity = 1000;
+
+        private int keepAliveSeconds = 60;
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+        private boolean virtualThreads = false;
+
+        public int getCoreSize() {
+            return coreSize;
+        }
+
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(int keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    public static class LoggingAspect {
+
+        /**
+         * What the aspect does with the calls it intercepts.
+         */
+        public enum Mode {
+            /** Log the arguments and results at debug level. */
+            LOG,
+            /** Record a latency histogram per method, and log the slowest calls. */
+            LATENCY
+        }
+
+        private boolean enabled = false;
+
+        private Mode mode = Mode.LOG;
+
+        private int sampleRate = 10;
+
+        private int slowestCalls = 10;
+
+        private long slowestCallsWindowSeconds = 300;
+
+        private List<String> packages = new ArrayList<>(Arrays.asList(
+            "leyanessantiago.jobposting.repository",
+            "leyanessantiago.jobposting.service",
+            "leyanessantiago.jobposting.web.rest"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getSlowestCalls() {
+            return slowestCalls;
+        }
+
+        public void setSlowestCalls(int slowestCalls) {
+            this.slowestCalls = slowestCalls;
+        }
+
+        public long getSlowestCallsWindowSeconds() {
+            return slowestCallsWindowSeconds;
+        }
+
+        public void setSlowestCallsWindowSeconds(long slowestCallsWindowSeconds) {
+            this.slowestCallsWindowSeconds = slowestCallsWindowSeconds;
+        }
+
+        public List<String> getPackages() {
+            return packages;
+        }
+
+        public void setPackages(List<String> packages) {
+            this.packages = packages;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int threads = 0;
+
+        private int queueCapacity = 50;
+
+        private int strength = 0;
+
+        private long targetMs = 250;
+
+        private int minStrength = 10;
+
+        private int maxStrength = 14;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public long getTargetMs() {
+            return targetMs;
+        }
+
+        public void setTargetMs(long targetMs) {
+            this.targetMs = targetMs;
+        }
+
+        public int getMinStrength() {
+            return minStrength;
+        }
+
+        public void setMinStrength(int minStrength) {
+            this.minStrength = minStrength;
+        }
+
+        public int getMaxStrength() {
+            return maxStrength;
+        }
+
+        public void setMaxStrength(int maxStrength) {
+            this.maxStrength = maxStrength;
+        }
+    }
+
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        private int maxKeys = 100000;
+
+        private int stripes = 64;
+
+        private final Limiter ip = new Limiter(30, 30, 60);
+
+        private final Limiter account = new Limiter(5, 5, 60);
+
+        /**
+         * The addresses, or CIDR ranges, of the proxies trusted to set {@code X-Forwarded-For}.
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public Limiter getIp() {
+            return ip;
+        }
+
+        public Limiter getAccount() {
+            return account;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public static class Limiter {
+
+            private int capacity;
+
+            private int refillTokens;
+
+            private long refillPeriodSeconds;
+
+            public Limiter() {
+            }
+
+            Limiter(int capacity, int refillTokens, long refillPeriodSeconds) {
+                this.capacity = capacity;
+                this.refillTokens = refillTokens;
+                this.refillPeriodSeconds = refillPeriodSeconds;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public int getRefillTokens() {
+                return refillTokens;
+            }
+
+            public void setRefillTokens(int refillTokens) {
+                this.refillTokens = refillTokens;
+            }
+
+            public long getRefillPeriodSeconds() {
+                return refillPeriodSeconds;
+            }
+
+            public void setRefillPeriodSeconds(long refillPeriodSeconds) {
+                this.refillPeriodSeconds = refillPeriodSeconds;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * The cache regions, by cache name, overriding the {@code jhipster.cache.ehcache} defaults.
+         */
+        private final Map<String, CacheRegion> regions = new LinkedHashMap<>();
+
+        private final CacheInvalidation invalidation = new CacheInvalidation();
+
+        public Map<String, CacheRegion> getRegions() {
+            return regions;
+        }
+
+        public CacheInvalidation getInvalidation() {
+            return invalidation;
+        }
+    }
+
+    public static class CacheInvalidation {
+
+        private boolean enabled = false;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMs = 100;
+
+        private long pollIntervalMs = 1000;
+
+        private long retentionSeconds = 600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public long getRetentionSeconds() {
+            return retentionSeconds;
+        }
+
+        public void setRetentionSeconds(long retentionSeconds) {
+            this.retentionSeconds = retentionSeconds;
+        }
+    }
+
+    /**
+     * The sizing and expiry of a cache region, the unset ones being taken from {@code jhipster.cache.ehcache}.
+     * <p>
+     * The heap tier is sized either by entries or by bytes, and an off-heap tier may be added, its values being
+     * serialized.
+     */
+    public static class CacheRegion {
+
+        private Long maxEntries;
+
+        private DataSize heapSize;
+
+        private DataSize offHeapSize;
+
+        private Long timeToLiveSeconds;
+
+        private Long timeToIdleSeconds;
+
+        public Long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(Long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getHeapSize() {
+            return heapSize;
+        }
+
+        public void setHeapSize(DataSize heapSize) {
+            this.heapSize = heapSize;
+        }
+
+        public DataSize getOffHeapSize() {
+            return offHeapSize;
+        }
+
+        public void setOffHeapSize(DataSize offHeapSize) {
+            this.offHeapSize = offHeapSize;
+        }
+
+        public Long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Long getTimeToIdleSeconds() {
+            return timeToIdleSeconds;
+        }
+
+        public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+            this.timeToIdleSeconds = timeToIdleSeconds;
+        }
+    }
 }
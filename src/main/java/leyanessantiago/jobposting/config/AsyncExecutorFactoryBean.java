@@ -0,0 +1,133 @@
+package leyanessantiago.jobposting.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates one of the named executors of {@link ApplicationProperties#getExecutors()}.
+ * <p>
+ * The executor is monitored with {@link ExecutorServiceMetrics}, tagged with its name: active threads, queued
+ * tasks, task latency ({@code executor}) and time spent queued ({@code executor.idle}). Rejected tasks are
+ * counted by {@code executor.rejected}, whatever the rejection policy.
+ */
+public class AsyncExecutorFactoryBean implements FactoryBean<ExecutorService>, InitializingBean, DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(AsyncExecutorFactoryBean.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final String name;
+
+    private final ApplicationProperties.AsyncExecutor properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    private ExecutorService monitoredExecutor;
+
+    public AsyncExecutorFactoryBean(String name, ApplicationProperties.AsyncExecutor properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = properties.isVirtualThreads() ? createVirtualThreadExecutor() : null;
+        if (executor == null) {
+            log.debug("Creating Async Executor '{}' with {} to {} threads", name, properties.getCoreSize(), properties.getMaxSize());
+            executor = createThreadPoolExecutor();
+        }
+        monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, name, Tags.empty());
+    }
+
+    private ThreadPoolExecutor createThreadPoolExecutor() {
+        Counter rejected = Counter.builder("executor.rejected")
+            .description("The number of tasks rejected by the executor")
+            .tag("name", name)
+            .register(meterRegistry);
+        RejectedExecutionHandler policy = createRejectionPolicy(properties.getRejectionPolicy());
+        return new ThreadPoolExecutor(properties.getCoreSize(),
+            Math.max(properties.getCoreSize(), properties.getMaxSize()),
+            properties.getKeepAliveSeconds(), TimeUnit.SECONDS,
+            properties.getQueueCapacity() > 0 ? new ArrayBlockingQueue<>(properties.getQueueCapacity()) : new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory(name + "-"),
+            (task, pool) -> {
+                rejected.increment();
+                policy.rejectedExecution(task, pool);
+            });
+    }
+
+    private static RejectedExecutionHandler createRejectionPolicy(ApplicationProperties.AsyncExecutor.RejectionPolicy rejectionPolicy) {
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST:
+                return new ThreadPoolExecutor.DiscardOldestPolicy();
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+
+    /**
+     * The project is compiled for Java 8, so virtual threads are looked up by reflection, and the executor
+     * falls back to a thread pool on a JVM without them.
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            log.debug("Creating Async Executor '{}' with virtual threads", name);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads aren't supported by this JVM, Async Executor '{}' uses a thread pool", name);
+            return null;
+        }
+    }
+
+    @Override
+    public ExecutorService getObject() {
+        return monitoredExecutor;
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return ExecutorService.class;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Async Executor '{}' didn't terminate within {} seconds", name, SHUTDOWN_TIMEOUT_SECONDS);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package leyanessantiago.jobposting.config;
+
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Registers one {@link AsyncExecutorFactoryBean} per entry of {@code application.executors}, named after it.
+ * <p>
+ * Bean definitions are registered before {@link ApplicationProperties} is bound, so the entries are bound here
+ * from the environment.
+ */
+public class AsyncExecutorRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+        Map<String, ApplicationProperties.AsyncExecutor> executors = Binder.get(environment)
+            .bind("application.executors", Bindable.mapOf(String.class, ApplicationProperties.AsyncExecutor.class))
+            .orElse(Collections.emptyMap());
+        executors.forEach((name, properties) -> registry.registerBeanDefinition(name,
+            BeanDefinitionBuilder.genericBeanDefinition(AsyncExecutorFactoryBean.class)
+                .addConstructorArgValue(name)
+                .addConstructorArgValue(properties)
+                .setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR)
+                .getBeanDefinition()));
+    }
+}
@@ -1,38 +1,75 @@
 package leyanessantiago.jobposting.config;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
 
 import org.hibernate.cache.jcache.ConfigSettings;
 import io.github.jhipster.config.JHipsterProperties;
+import leyanessantiago.jobposting.config.cache.CacheInvalidationBus;
+import leyanessantiago.jobposting.config.cache.RegionEvictionCacheManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
 
+/**
+ * Creates the caches, sized from {@code jhipster.cache.ehcache} unless configured in
+ * {@code application.cache.regions}.
+ * <p>
+ * Statistics are enabled on every cache, so their hits, misses and evictions are published to Micrometer by the
+ * cache metrics of Spring Boot.
+ * <p>
+ * The queries marked as cacheable in the repositories store their results in their own region, listed in
+ * {@link #QUERY_CACHES}, so the hit ratio of each query is published as the one of its cache. Hibernate discards a
+ * cached result once one of its tables is updated, from the timestamps kept in {@link #UPDATE_TIMESTAMPS_CACHE},
+ * which never expire.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    /**
+     * The region of the last update of each table, checked by Hibernate before returning a cached query result.
+     */
+    public static final String UPDATE_TIMESTAMPS_CACHE = "default-update-timestamps-region";
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache =
-            jHipsterProperties.getCache().getEhcache();
+    /**
+     * The regions of the cacheable queries.
+     * <p>
+     * There are none: the hot listing and count queries are already served from snapshots refreshed on a version
+     * check (the active advertisements feed, the counters and the search index), and that version query must see
+     * the writes of the other nodes. A cacheable query needs {@code hibernate.cache.use_query_cache} as well.
+     */
+    public static final List<String> QUERY_CACHES = Collections.emptyList();
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build());
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+
+    private final Map<String, ApplicationProperties.CacheRegion> regions;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
+    /**
+     * The region evictions of Hibernate clear its caches without notifying their listeners, so they are published
+     * to the {@link CacheInvalidationBus}, when enabled, by the cache manager given to Hibernate.
+     */
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager,
+            ObjectProvider<CacheInvalidationBus> cacheInvalidationBus) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, new RegionEvictionCacheManager(
+            cacheManager, cacheName -> cacheInvalidationBus.ifAvailable(bus -> bus.publishRegionEviction(cacheName))));
     }
 
     @Bean
@@ -49,6 +86,8 @@ public class CacheConfiguration {
             createCache(cm, leyanessantiago.jobposting.domain.Candidate.class.getName() + ".advertisements");
             createCache(cm, leyanessantiago.jobposting.domain.Advertisement.class.getName() + ".candidates");
             // jhipster-needle-ehcache-add-entry
+            createCache(cm, UPDATE_TIMESTAMPS_CACHE);
+            QUERY_CACHES.forEach(cacheName -> createCache(cm, cacheName));
         };
     }
 
@@ -57,6 +96,50 @@ public class CacheConfiguration {
         if (cache != null) {
             cm.destroyCache(cacheName);
         }
-        cm.createCache(cacheName, jcacheConfiguration);
+        cm.createCache(cacheName, UPDATE_TIMESTAMPS_CACHE.equals(cacheName) ? createUpdateTimestampsConfiguration() :
+            createConfiguration(regions.get(cacheName), cm.getClassLoader()));
+        cm.enableStatistics(cacheName, true);
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> createConfiguration(ApplicationProperties.CacheRegion region,
+                                                                                ClassLoader classLoader) {
+        if (region == null) {
+            region = new ApplicationProperties.CacheRegion();
+        }
+        ResourcePoolsBuilder resourcePools = region.getHeapSize() != null ?
+            ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B) :
+            ResourcePoolsBuilder.heap(region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries());
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(createExpiry(region));
+        if (region.getOffHeapSize() != null) {
+            // Keys and values are declared as objects, so the serializer of Serializable isn't picked by default.
+            builder = builder
+                .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                .withValueSerializer(new PlainJavaSerializer<>(classLoader));
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    /**
+     * A lost timestamp would let Hibernate return stale query results, so the timestamps never expire. There is
+     * one per table, far less than the entries of a region.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> createUpdateTimestampsConfiguration() {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
+            .withExpiry(ExpiryPolicyBuilder.noExpiration())
+            .build());
+    }
+
+    private ExpiryPolicy<Object, Object> createExpiry(ApplicationProperties.CacheRegion region) {
+        if (region.getTimeToIdleSeconds() != null) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()));
+        }
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+        return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds));
     }
 }
@@ -0,0 +1,52 @@
+package leyanessantiago.jobposting.config;
+
+import leyanessantiago.jobposting.config.cache.CacheInvalidationBus;
+import leyanessantiago.jobposting.config.cache.CacheInvalidationTransport;
+import leyanessantiago.jobposting.config.cache.JdbcCacheInvalidationTransport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Broadcasts the cache evictions to the other nodes of a cluster when {@code application.cache.invalidation.enabled}
+ * is set.
+ * <p>
+ * The invalidations go through the database shared by the nodes, unless another
+ * {@link CacheInvalidationTransport} is declared.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "enabled", havingValue = "true")
+public class CacheInvalidationConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(CacheInvalidationTransport.class)
+    public JdbcCacheInvalidationTransport jdbcCacheInvalidationTransport(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        return new JdbcCacheInvalidationTransport(jdbcTemplate, transactionManager, applicationProperties);
+    }
+
+    /**
+     * The update timestamps received from the other nodes are replaced by the ones of the local Hibernate region
+     * factory, which are compared with the timestamps of the cached query results.
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(javax.cache.CacheManager cacheManager,
+            CacheInvalidationTransport cacheInvalidationTransport, ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory) {
+        CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(cacheManager, cacheInvalidationTransport,
+            applicationProperties, meterRegistry);
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        cacheInvalidationBus.setQueryCaches(CacheConfiguration.UPDATE_TIMESTAMPS_CACHE, CacheConfiguration.QUERY_CACHES,
+            regionFactory::nextTimestamp);
+        return cacheInvalidationBus;
+    }
+}
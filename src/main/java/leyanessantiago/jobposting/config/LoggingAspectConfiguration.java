@@ -1,19 +1,72 @@
 package leyanessantiago.jobposting.config;
 
+import leyanessantiago.jobposting.aop.logging.LatencyAspect;
 import leyanessantiago.jobposting.aop.logging.LoggingAspect;
+import leyanessantiago.jobposting.aop.logging.LoggingAspectSwitch;
+import leyanessantiago.jobposting.aop.logging.SlowestCallsEndpoint;
 
-import io.github.jhipster.config.JHipsterConstants;
-
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 
+import java.time.Duration;
+
+/**
+ * Registers the {@link LoggingAspect}, or the {@link LatencyAspect} in the LATENCY mode, when
+ * {@code application.logging-aspect.enabled} is set, so no proxy is created for them otherwise.
+ */
 @Configuration
 @EnableAspectJAutoProxy
+@ConditionalOnProperty(prefix = "application.logging-aspect", name = "enabled", havingValue = "true")
 public class LoggingAspectConfiguration {
 
+    /**
+     * The advisor is needed by the {@link LoggingAspectSwitch} post-processor, so it is created before the
+     * {@link ApplicationProperties} are bound, and binds its packages from the environment.
+     */
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @ConditionalOnProperty(prefix = "application.logging-aspect", name = "mode", havingValue = "log", matchIfMissing = true)
+    public static Advisor loggingAspectAdvisor(Environment env) {
+        return new DefaultPointcutAdvisor(LoggingAspect.pointcut(bindProperties(env).getPackages()), new LoggingAspect(env));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.logging-aspect", name = "mode", havingValue = "latency")
+    public static Advisor latencyAspectAdvisor(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        ApplicationProperties.LoggingAspect properties = bindProperties(env);
+        return new DefaultPointcutAdvisor(LoggingAspect.pointcut(properties.getPackages()),
+            new LatencyAspect(meterRegistry, properties.getSampleRate(), properties.getSlowestCalls(),
+                Duration.ofSeconds(properties.getSlowestCallsWindowSeconds())));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.logging-aspect", name = "mode", havingValue = "latency")
+    public SlowestCallsEndpoint slowestCallsEndpoint(@Qualifier("latencyAspectAdvisor") Advisor latencyAspectAdvisor) {
+        return new SlowestCallsEndpoint(((LatencyAspect) latencyAspectAdvisor.getAdvice()).getSlowestCalls());
+    }
+
+    /**
+     * The latency mode doesn't follow the level of the logger. The exception advisor isn't a bean, so it is only
+     * added to the proxies by the switch.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.logging-aspect", name = "mode", havingValue = "log", matchIfMissing = true)
+    public static LoggingAspectSwitch loggingAspectSwitch(@Qualifier("loggingAspectAdvisor") Advisor loggingAspectAdvisor,
+            Environment env) {
+        return new LoggingAspectSwitch(loggingAspectAdvisor,
+            new DefaultPointcutAdvisor(LoggingAspect.pointcut(bindProperties(env).getPackages()), new LoggingAspect(env, false)));
+    }
+
+    private static ApplicationProperties.LoggingAspect bindProperties(Environment env) {
+        return Binder.get(env)
+            .bind("application.logging-aspect", Bindable.of(ApplicationProperties.LoggingAspect.class))
+            .orElseGet(ApplicationProperties.LoggingAspect::new);
     }
 }
@@ -2,7 +2,9 @@ package leyanessantiago.jobposting.config;
 
 import leyanessantiago.jobposting.security.*;
 import leyanessantiago.jobposting.security.jwt.*;
+import leyanessantiago.jobposting.security.ratelimit.RateLimitingFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Bean;
@@ -14,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
@@ -31,15 +32,22 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport,
+                                 ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new PooledPasswordEncoder(applicationProperties.getPasswordHashing(), meterRegistry);
     }
 
     @Override
@@ -84,6 +92,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers("/api/account/reset-password/init").permitAll()
             .antMatchers("/api/account/reset-password/finish").permitAll()
             .antMatchers("/api/advertisements/active").permitAll()
+            .antMatchers("/api/advertisements/search").permitAll()
             .antMatchers("/api/advertisements/{id}").permitAll()
             .antMatchers(HttpMethod.POST, "/api/candidates").permitAll()
             .antMatchers("/api/**").authenticated()
@@ -96,6 +105,11 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .apply(securityConfigurerAdapter());
         // @formatter:on
+        if (applicationProperties.getRateLimit().isEnabled()) {
+            // Added after the CORS filter, so throttled responses still have their CORS headers
+            http.addFilterBefore(new RateLimitingFilter(applicationProperties.getRateLimit(), meterRegistry),
+                UsernamePasswordAuthenticationFilter.class);
+        }
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
@@ -0,0 +1,189 @@
+package leyanessantiago.jobposting.config.audit;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
+import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes audit events in batches from a background thread.
+ * <p>
+ * Events are put in a bounded queue, so recording one doesn't open a transaction on the request thread.
+ * A single writer thread drains the queue and saves the events in one transaction per batch, flushed as
+ * JDBC batches, once {@code batch-size} events are pending or {@code flush-interval-ms} has elapsed since
+ * the first one. When the queue is full, the {@code backpressure} policy decides whether events are
+ * dropped, sampled or wait for room. Pending events are written on shutdown.
+ * <p>
+ * When the writer is disabled, events are written synchronously, in their own transaction.
+ */
+@Component
+public class AuditEventWriter implements InitializingBean, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.AuditWriter properties;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final AtomicLong sampled = new AtomicLong();
+
+    private final Counter writtenEvents;
+
+    private final Counter droppedEvents;
+
+    private final Counter failedEvents;
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    public AuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getAuditWriter();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        Gauge.builder("audit.writer.queue.depth", queue, Collection::size)
+            .description("Number of audit events waiting to be written")
+            .register(meterRegistry);
+        this.writtenEvents = meterRegistry.counter("audit.writer.events", "result", "written");
+        this.droppedEvents = meterRegistry.counter("audit.writer.events", "result", "dropped");
+        this.failedEvents = meterRegistry.counter("audit.writer.events", "result", "failed");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.isEnabled()) {
+            running = true;
+            worker = new Thread(this::drain, "audit-writer");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Submit an event to be written.
+     *
+     * @param event the event.
+     */
+    public void submit(PersistentAuditEvent event) {
+        if (!running) {
+            write(Collections.singletonList(event));
+            return;
+        }
+        if (!enqueue(event)) {
+            droppedEvents.increment();
+            log.debug("Audit event queue is full, dropped {} event of {}", event.getAuditEventType(), event.getPrincipal());
+        }
+    }
+
+    private boolean enqueue(PersistentAuditEvent event) {
+        switch (properties.getBackpressure()) {
+            case BLOCK:
+                try {
+                    return queue.offer(event, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case SAMPLE:
+                if (queue.size() >= properties.getQueueCapacity() / 2
+                    && sampled.incrementAndGet() % Math.max(1, properties.getSampleRate()) != 0) {
+                    return false;
+                }
+                return queue.offer(event);
+            default:
+                return queue.offer(event);
+        }
+    }
+
+    private void drain() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PersistentAuditEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize && running) {
+                    PersistentAuditEvent next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PersistentAuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.saveAll(events));
+            writtenEvents.increment(events.size());
+        } catch (RuntimeException e) {
+            failedEvents.increment(events.size());
+            log.error("Could not write {} audit events", events.size(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(SHUTDOWN_TIMEOUT_MS);
+        if (worker.isAlive()) {
+            log.warn("Audit writer did not stop in time, {} audit events are not written", queue.size());
+        } else {
+            // Events submitted while the worker was stopping.
+            List<PersistentAuditEvent> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            write(remaining);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package leyanessantiago.jobposting.config.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The eviction of a key from a cache, or of the whole cache when there is no key.
+ * <p>
+ * Invalidations are sent to the other nodes as serialized lists. Only the classes of the JDK collections and
+ * values, of the Hibernate cache keys and of this application are read back, so a payload can't instantiate
+ * arbitrary classes.
+ */
+public final class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] ALLOWED_PACKAGES = {
+        "java.lang.", "java.util.", "java.time.", "java.math.", "org.hibernate.cache.", "leyanessantiago.jobposting."
+    };
+
+    private final String cacheName;
+
+    private final Serializable key;
+
+    private CacheInvalidation(String cacheName, Serializable key) {
+        this.cacheName = Objects.requireNonNull(cacheName);
+        this.key = key;
+    }
+
+    /**
+     * The eviction of a key.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation ofKey(String cacheName, Serializable key) {
+        return new CacheInvalidation(cacheName, Objects.requireNonNull(key));
+    }
+
+    /**
+     * The eviction of every entry of a cache.
+     *
+     * @param cacheName the name of the cache.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation ofRegion(String cacheName) {
+        return new CacheInvalidation(cacheName, null);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Serializable getKey() {
+        return key;
+    }
+
+    public boolean isRegion() {
+        return key == null;
+    }
+
+    /**
+     * Serialize invalidations, to be sent to the other nodes.
+     *
+     * @param invalidations the invalidations.
+     * @return the payload.
+     */
+    public static byte[] serialize(List<CacheInvalidation> invalidations) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(invalidations));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserialize the invalidations sent by another node.
+     *
+     * @param payload the payload.
+     * @return the invalidations.
+     * @throws IOException if the payload is not a list of invalidations, or refers to a class which is not allowed.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<CacheInvalidation> deserialize(byte[] payload) throws IOException {
+        try (ObjectInputStream in = new AllowListObjectInputStream(new ByteArrayInputStream(payload))) {
+            Object invalidations = in.readObject();
+            if (!(invalidations instanceof List)) {
+                throw new InvalidClassException(invalidations == null ? "null" : invalidations.getClass().getName(),
+                    "Not a list of cache invalidations");
+            }
+            for (Object invalidation : (List<?>) invalidations) {
+                if (!(invalidation instanceof CacheInvalidation)) {
+                    throw new InvalidClassException(invalidation == null ? "null" : invalidation.getClass().getName(),
+                        "Not a cache invalidation");
+                }
+            }
+            return (List<CacheInvalidation>) invalidations;
+        } catch (ClassNotFoundException e) {
+            throw new InvalidClassException(e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return cacheName.equals(that.cacheName) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cacheName, key);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "cacheName='" + cacheName + '\'' +
+            ", key=" + key +
+            "}";
+    }
+
+    private static final class AllowListObjectInputStream extends ObjectInputStream {
+
+        AllowListObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            // Arrays of primitives, e.g. the elements of an array list, are named "[B", "[J"...
+            if (name.startsWith("[") && name.length() == 2) {
+                return super.resolveClass(desc);
+            }
+            String className = name.startsWith("[L") ? name.substring(2) : name;
+            for (String allowedPackage : ALLOWED_PACKAGES) {
+                if (className.startsWith(allowedPackage)) {
+                    return super.resolveClass(desc);
+                }
+            }
+            throw new InvalidClassException(name, "Class is not allowed in a cache invalidation");
+        }
+    }
+}
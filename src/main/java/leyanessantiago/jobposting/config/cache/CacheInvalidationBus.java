@@ -0,0 +1,347 @@
+package leyanessantiago.jobposting.config.cache;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Broadcasts the evictions of the local caches to the other nodes of a cluster, and applies theirs.
+ * <p>
+ * A listener on every cache captures the entries updated or removed on this node, whether by Hibernate or by an
+ * explicit eviction, and puts them in a bounded queue. A single thread sends them through the
+ * {@link CacheInvalidationTransport} in batches, once {@code batch-size} evictions are pending or
+ * {@code flush-interval-ms} has elapsed since the first one. When the queue is full, the whole cache is evicted on
+ * the other nodes instead. Clearing a cache doesn't notify its listeners, so it is broadcast with
+ * {@link #publishRegionEviction(String)}, which the {@link RegionEvictionCacheManager} given to Hibernate calls for
+ * its region evictions.
+ * <p>
+ * The other nodes remove the keys from their caches, without broadcasting these removals again.
+ * <p>
+ * The results of the Hibernate query cache are not broadcast, each node discarding its own results from the update
+ * timestamps of their tables. An update timestamp is broadcast instead, and the other nodes set the timestamp of the
+ * table to their current time: removing it would let them return results older than the update.
+ */
+public class CacheInvalidationBus implements InitializingBean, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationTransport transport;
+
+    private final ApplicationProperties.CacheInvalidation properties;
+
+    private final BlockingQueue<CacheInvalidation> queue;
+
+    private final Set<String> overflowedCaches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The invalidations of the other nodes being applied, so their removals aren't broadcast again.
+     */
+    private final Set<CacheInvalidation> applying = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, CacheEntryListenerConfiguration<Object, Object>> listeners = new LinkedHashMap<>();
+
+    private final Counter sentInvalidations;
+
+    private final Counter receivedInvalidations;
+
+    private final Counter sentBatches;
+
+    private final Counter failedBatches;
+
+    private final Counter overflows;
+
+    private String updateTimestampsCacheName;
+
+    private Set<String> queryCacheNames = Collections.emptySet();
+
+    private LongSupplier timestamper;
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    public CacheInvalidationBus(CacheManager cacheManager, CacheInvalidationTransport transport,
+            ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.properties = applicationProperties.getCache().getInvalidation();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        Gauge.builder("cache.invalidation.queue.depth", queue, Collection::size)
+            .description("Number of cache invalidations waiting to be sent")
+            .register(meterRegistry);
+        this.sentInvalidations = meterRegistry.counter("cache.invalidation.invalidations", "result", "sent");
+        this.receivedInvalidations = meterRegistry.counter("cache.invalidation.invalidations", "result", "received");
+        this.sentBatches = meterRegistry.counter("cache.invalidation.batches", "result", "sent");
+        this.failedBatches = meterRegistry.counter("cache.invalidation.batches", "result", "failed");
+        this.overflows = meterRegistry.counter("cache.invalidation.overflows");
+    }
+
+    /**
+     * Set the caches of the Hibernate query cache, before this bus is started.
+     *
+     * @param updateTimestampsCacheName the name of the cache of the update timestamps.
+     * @param queryCacheNames the names of the caches of the query results.
+     * @param timestamper the timestamps of the Hibernate region factory.
+     */
+    public void setQueryCaches(String updateTimestampsCacheName, Collection<String> queryCacheNames, LongSupplier timestamper) {
+        this.updateTimestampsCacheName = updateTimestampsCacheName;
+        this.queryCacheNames = new HashSet<>(queryCacheNames);
+        this.timestamper = timestamper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        worker = new Thread(this::drain, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+        InvalidationListener listener = new InvalidationListener();
+        UpdateTimestampsListener updateTimestampsListener = new UpdateTimestampsListener();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            if (cache == null || queryCacheNames.contains(cacheName)) {
+                continue;
+            }
+            // The first timestamp of a table is a creation.
+            Factory<CacheEntryListener<Object, Object>> listenerFactory = cacheName.equals(updateTimestampsCacheName) ?
+                () -> updateTimestampsListener : () -> listener;
+            // The cache operations wait for a synchronous listener, so the changes applied by this bus are
+            // recognized while they are in progress.
+            CacheEntryListenerConfiguration<Object, Object> configuration =
+                new MutableCacheEntryListenerConfiguration<>(listenerFactory, null, false, true);
+            cache.registerCacheEntryListener(configuration);
+            listeners.put(cacheName, configuration);
+        }
+        transport.start(this::apply);
+        log.debug("Broadcasting the invalidations of {} caches", listeners.size());
+    }
+
+    /**
+     * Evict a key from a cache on the other nodes.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key.
+     */
+    public void publish(String cacheName, Object key) {
+        if (!running) {
+            return;
+        }
+        if (!(key instanceof Serializable)) {
+            publishRegionEviction(cacheName);
+            return;
+        }
+        CacheInvalidation invalidation = CacheInvalidation.ofKey(cacheName, (Serializable) key);
+        if (!applying.isEmpty() && applying.contains(invalidation)) {
+            return;
+        }
+        if (!queue.offer(invalidation)) {
+            overflow(cacheName);
+        }
+    }
+
+    /**
+     * Evict every entry of a cache on the other nodes. The query result caches are left to each node.
+     *
+     * @param cacheName the name of the cache.
+     */
+    public void publishRegionEviction(String cacheName) {
+        if (!running || queryCacheNames.contains(cacheName)) {
+            return;
+        }
+        if (!queue.offer(CacheInvalidation.ofRegion(cacheName))) {
+            overflow(cacheName);
+        }
+    }
+
+    private void overflow(String cacheName) {
+        if (overflowedCaches.add(cacheName)) {
+            overflows.increment();
+            log.debug("Cache invalidation queue is full, {} will be evicted on the other nodes", cacheName);
+        }
+    }
+
+    private void drain() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        Set<CacheInvalidation> batch = new LinkedHashSet<>();
+        List<CacheInvalidation> polled = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CacheInvalidation first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + flushIntervalNanos;
+                    while (batch.size() < batchSize && running) {
+                        queue.drainTo(polled, batchSize - batch.size());
+                        batch.addAll(polled);
+                        polled.clear();
+                        CacheInvalidation next = batch.size() < batchSize ?
+                            queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                addOverflowedCaches(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void addOverflowedCaches(Set<CacheInvalidation> batch) {
+        for (String cacheName : overflowedCaches) {
+            overflowedCaches.remove(cacheName);
+            batch.add(CacheInvalidation.ofRegion(cacheName));
+        }
+    }
+
+    private void send(Set<CacheInvalidation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transport.send(new ArrayList<>(batch));
+            sentBatches.increment();
+            sentInvalidations.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Could not send {} cache invalidations, their caches will be evicted on the other nodes: {}",
+                batch.size(), e.toString());
+            batch.forEach(invalidation -> overflowedCaches.add(invalidation.getCacheName()));
+        }
+    }
+
+    /**
+     * Apply the invalidations of another node to the local caches.
+     */
+    void apply(List<CacheInvalidation> invalidations) {
+        for (CacheInvalidation invalidation : invalidations) {
+            Cache<Object, Object> cache = cacheManager.getCache(invalidation.getCacheName());
+            if (cache == null) {
+                continue;
+            }
+            try {
+                if (invalidation.getCacheName().equals(updateTimestampsCacheName)) {
+                    applyUpdateTimestamp(cache, invalidation);
+                } else if (invalidation.isRegion()) {
+                    cache.clear();
+                } else {
+                    applying.add(invalidation);
+                    cache.remove(invalidation.getKey());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not apply the cache invalidation {}: {}", invalidation, e.toString());
+            } finally {
+                applying.remove(invalidation);
+            }
+        }
+        receivedInvalidations.increment(invalidations.size());
+    }
+
+    /**
+     * Without the timestamps of the other node, every query result is discarded.
+     */
+    private void applyUpdateTimestamp(Cache<Object, Object> cache, CacheInvalidation invalidation) {
+        if (invalidation.isRegion()) {
+            for (String queryCacheName : queryCacheNames) {
+                Cache<Object, Object> queryCache = cacheManager.getCache(queryCacheName);
+                if (queryCache != null) {
+                    queryCache.clear();
+                }
+            }
+        } else {
+            applying.add(invalidation);
+            cache.put(invalidation.getKey(), timestamper.getAsLong());
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        transport.stop();
+        for (Map.Entry<String, CacheEntryListenerConfiguration<Object, Object>> listener : listeners.entrySet()) {
+            Cache<Object, Object> cache = cacheManager.isClosed() ? null : cacheManager.getCache(listener.getKey());
+            if (cache != null) {
+                cache.deregisterCacheEntryListener(listener.getValue());
+            }
+        }
+        listeners.clear();
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(SHUTDOWN_TIMEOUT_MS);
+        if (worker.isAlive()) {
+            log.warn("Cache invalidation bus did not stop in time, {} cache invalidations are not sent", queue.size());
+        }
+    }
+
+    private class InvalidationListener implements CacheEntryUpdatedListener<Object, Object>,
+            CacheEntryRemovedListener<Object, Object> {
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            events.forEach(this::publish);
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            events.forEach(this::publish);
+        }
+
+        void publish(CacheEntryEvent<? extends Object, ? extends Object> event) {
+            CacheInvalidationBus.this.publish(event.getSource().getName(), event.getKey());
+        }
+    }
+
+    private final class UpdateTimestampsListener extends InvalidationListener
+            implements CacheEntryCreatedListener<Object, Object> {
+
+        @Override
+        public void onCreated(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            events.forEach(this::publish);
+        }
+    }
+}
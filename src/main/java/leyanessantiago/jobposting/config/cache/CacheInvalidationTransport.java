@@ -0,0 +1,32 @@
+package leyanessantiago.jobposting.config.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries the cache invalidations of a node to the other nodes of a cluster.
+ * <p>
+ * A transport doesn't deliver its own invalidations back to its node. Delivery is at most once: a node missing
+ * invalidations keeps its entries until they expire.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Start receiving the invalidations of the other nodes.
+     *
+     * @param receiver called with each batch of invalidations received, from a single thread.
+     */
+    void start(Consumer<List<CacheInvalidation>> receiver);
+
+    /**
+     * Send a batch of invalidations to the other nodes.
+     *
+     * @param invalidations the invalidations.
+     */
+    void send(List<CacheInvalidation> invalidations);
+
+    /**
+     * Stop receiving invalidations.
+     */
+    void stop();
+}
@@ -0,0 +1,189 @@
+package leyanessantiago.jobposting.config.cache;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Carries the cache invalidations through the {@code jhi_cache_invalidation} table of the shared database.
+ * <p>
+ * Each batch is a row, inserted in its own transaction. A poller thread reads the rows inserted by the other
+ * nodes since its last poll, every {@code poll-interval-ms}, and deletes the rows older than
+ * {@code retention-seconds}. As rows may be committed out of the order of their ids, the ids skipped by a poll are
+ * read again by the next polls for a while.
+ */
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private static final int MAX_GAPS = 1000;
+
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger log = LoggerFactory.getLogger(JdbcCacheInvalidationTransport.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.CacheInvalidation properties;
+
+    private final String origin = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    /**
+     * The ids skipped by a poll, with the time until they are read again.
+     */
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    private long lastId;
+
+    private long purgedAt;
+
+    private volatile boolean running;
+
+    private Thread poller;
+
+    public JdbcCacheInvalidationTransport(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getCache().getInvalidation();
+    }
+
+    @Override
+    public void start(Consumer<List<CacheInvalidation>> receiver) {
+        Long maxId = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("select max(id) from jhi_cache_invalidation", Long.class));
+        lastId = maxId != null ? maxId : 0;
+        purgedAt = System.nanoTime();
+        running = true;
+        poller = new Thread(() -> poll(receiver), "cache-invalidation-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void send(List<CacheInvalidation> invalidations) {
+        byte[] payload = CacheInvalidation.serialize(invalidations);
+        transactionTemplate.execute(status -> jdbcTemplate.update(
+            "insert into jhi_cache_invalidation (origin, created_date, payload) values (?, ?, ?)",
+            origin, toTimestamp(Instant.now()), payload));
+    }
+
+    private void poll(Consumer<List<CacheInvalidation>> receiver) {
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(properties.getPollIntervalMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                receive(receiver);
+                if (System.nanoTime() - purgedAt > PURGE_INTERVAL_NANOS) {
+                    purge();
+                    purgedAt = System.nanoTime();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not read the cache invalidations of the other nodes: {}", e.toString());
+            }
+        }
+    }
+
+    void receive(Consumer<List<CacheInvalidation>> receiver) {
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        long fromId = gaps.isEmpty() ? lastId : Math.min(lastId, Collections.min(gaps.keySet()) - 1);
+        List<Row> rows = transactionTemplate.execute(status -> jdbcTemplate.query(
+            "select id, origin, payload from jhi_cache_invalidation where id > ? order by id",
+            (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("origin"), rs.getBytes("payload")),
+            fromId));
+        if (rows == null) {
+            return;
+        }
+        for (Row row : rows) {
+            if (row.id <= lastId) {
+                if (gaps.remove(row.id) == null) {
+                    continue;
+                }
+            } else {
+                if (row.id - lastId <= MAX_GAPS) {
+                    for (long id = lastId + 1; id < row.id && gaps.size() < MAX_GAPS; id++) {
+                        gaps.put(id, now + GAP_TIMEOUT_NANOS);
+                    }
+                }
+                lastId = row.id;
+            }
+            if (origin.equals(row.origin)) {
+                continue;
+            }
+            try {
+                receiver.accept(CacheInvalidation.deserialize(row.payload));
+            } catch (IOException e) {
+                log.warn("Could not read the cache invalidations {} of {}: {}", row.id, row.origin, e.toString());
+            }
+        }
+    }
+
+    private void purge() {
+        Timestamp before = toTimestamp(Instant.now().minusSeconds(properties.getRetentionSeconds()));
+        Integer purged = transactionTemplate.execute(status -> jdbcTemplate.update(
+            "delete from jhi_cache_invalidation where created_date < ?", before));
+        log.debug("Deleted {} cache invalidations before {}", purged, before);
+    }
+
+    @Override
+    public void stop() {
+        if (poller == null) {
+            return;
+        }
+        // The poller isn't interrupted, so it doesn't break a connection in use.
+        running = false;
+        try {
+            poller.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    private static final class Row {
+
+        private final long id;
+
+        private final String origin;
+
+        private final byte[] payload;
+
+        Row(long id, String origin, byte[] payload) {
+            this.id = id;
+            this.origin = origin;
+            this.payload = payload;
+        }
+    }
+}
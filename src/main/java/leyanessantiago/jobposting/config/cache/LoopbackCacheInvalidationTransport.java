@@ -0,0 +1,75 @@
+package leyanessantiago.jobposting.config.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Carries the cache invalidations between the transports of a {@link Hub}, in the same JVM, e.g. to test
+ * several nodes.
+ * <p>
+ * Invalidations are serialized as by a remote transport, and delivered from the thread sending them.
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final Hub hub;
+
+    private volatile Consumer<List<CacheInvalidation>> receiver;
+
+    private LoopbackCacheInvalidationTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<List<CacheInvalidation>> receiver) {
+        this.receiver = receiver;
+        hub.transports.addIfAbsent(this);
+    }
+
+    @Override
+    public void send(List<CacheInvalidation> invalidations) {
+        byte[] payload = CacheInvalidation.serialize(invalidations);
+        for (LoopbackCacheInvalidationTransport transport : hub.transports) {
+            if (transport != this) {
+                transport.receive(payload);
+            }
+        }
+    }
+
+    private synchronized void receive(byte[] payload) {
+        Consumer<List<CacheInvalidation>> receiver = this.receiver;
+        if (receiver == null) {
+            return;
+        }
+        try {
+            receiver.accept(CacheInvalidation.deserialize(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        hub.transports.remove(this);
+        receiver = null;
+    }
+
+    /**
+     * The transports of the nodes sharing their invalidations.
+     */
+    public static final class Hub {
+
+        private final List<LoopbackCacheInvalidationTransport> transports = new CopyOnWriteArrayList<>();
+
+        /**
+         * Create the transport of a node.
+         *
+         * @return the transport.
+         */
+        public LoopbackCacheInvalidationTransport connect() {
+            return new LoopbackCacheInvalidationTransport(this);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package leyanessantiago.jobposting.config.cache;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheManager} notifying the evictions of whole caches, which JCache doesn't report to the cache entry
+ * listeners.
+ * <p>
+ * It is handed to Hibernate, whose region evictions ({@code Cache.evictAll()}, {@code evictEntityData(Class)}, and
+ * the regions cleared by native and bulk queries) clear the underlying caches. The caches it returns call the
+ * listener with their name once cleared, see {@link CacheInvalidationBus#publishRegionEviction(String)}.
+ * {@link Cache#removeAll()} clears the cache as well, so its entries aren't notified one by one.
+ */
+public class RegionEvictionCacheManager implements CacheManager {
+
+    private final CacheManager cacheManager;
+
+    private final Consumer<String> listener;
+
+    public RegionEvictionCacheManager(CacheManager cacheManager, Consumer<String> listener) {
+        this.cacheManager = cacheManager;
+        this.listener = listener;
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return cacheManager.getCachingProvider();
+    }
+
+    @Override
+    public URI getURI() {
+        return cacheManager.getURI();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return cacheManager.getClassLoader();
+    }
+
+    @Override
+    public Properties getProperties() {
+        return cacheManager.getProperties();
+    }
+
+    @Override
+    public <K, V, C extends Configuration<K, V>> Cache<K, V> createCache(String cacheName, C configuration) {
+        return wrap(cacheManager.createCache(cacheName, configuration));
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        return wrap(cacheManager.getCache(cacheName, keyType, valueType));
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName) {
+        return wrap(cacheManager.getCache(cacheName));
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        return cacheManager.getCacheNames();
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        cacheManager.enableManagement(cacheName, enabled);
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        cacheManager.enableStatistics(cacheName, enabled);
+    }
+
+    @Override
+    public void close() {
+        cacheManager.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return cacheManager.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        return clazz.isInstance(this) ? clazz.cast(this) : cacheManager.unwrap(clazz);
+    }
+
+    private <K, V> Cache<K, V> wrap(Cache<K, V> cache) {
+        return cache != null ? new RegionEvictionCache<>(cache) : null;
+    }
+
+    private final class RegionEvictionCache<K, V> implements Cache<K, V> {
+
+        private final Cache<K, V> cache;
+
+        RegionEvictionCache(Cache<K, V> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void removeAll() {
+            clear();
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+            listener.accept(cache.getName());
+        }
+
+        @Override
+        public V get(K key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public Map<K, V> getAll(Set<? extends K> keys) {
+            return cache.getAll(keys);
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return cache.containsKey(key);
+        }
+
+        @Override
+        public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+            cache.loadAll(keys, replaceExistingValues, completionListener);
+        }
+
+        @Override
+        public void put(K key, V value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public V getAndPut(K key, V value) {
+            return cache.getAndPut(key, value);
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> map) {
+            cache.putAll(map);
+        }
+
+        @Override
+        public boolean putIfAbsent(K key, V value) {
+            return cache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public boolean remove(K key) {
+            return cache.remove(key);
+        }
+
+        @Override
+        public boolean remove(K key, V oldValue) {
+            return cache.remove(key, oldValue);
+        }
+
+        @Override
+        public V getAndRemove(K key) {
+            return cache.getAndRemove(key);
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            return cache.replace(key, oldValue, newValue);
+        }
+
+        @Override
+        public boolean replace(K key, V value) {
+            return cache.replace(key, value);
+        }
+
+        @Override
+        public V getAndReplace(K key, V value) {
+            return cache.getAndReplace(key, value);
+        }
+
+        @Override
+        public void removeAll(Set<? extends K> keys) {
+            cache.removeAll(keys);
+        }
+
+        @Override
+        public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+            return cache.getConfiguration(clazz);
+        }
+
+        @Override
+        public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+            return cache.invoke(key, entryProcessor, arguments);
+        }
+
+        @Override
+        public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor,
+                Object... arguments) {
+            return cache.invokeAll(keys, entryProcessor, arguments);
+        }
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public CacheManager getCacheManager() {
+            return RegionEvictionCacheManager.this;
+        }
+
+        @Override
+        public void close() {
+            cache.close();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return cache.isClosed();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            return clazz.isInstance(this) ? clazz.cast(this) : cache.unwrap(clazz);
+        }
+
+        @Override
+        public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> configuration) {
+            cache.registerCacheEntryListener(configuration);
+        }
+
+        @Override
+        public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> configuration) {
+            cache.deregisterCacheEntryListener(configuration);
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return cache.iterator();
+        }
+    }
+}
@@ -17,12 +17,16 @@ public class JobApplication {
     JobApplicationKey id;
 
     @ManyToOne
-    @MapsId("advertisement_id")
+    @MapsId("advertisementId")
     @JoinColumn(name = "advertisement_id")
     Advertisement advertisement;
 
     @ManyToOne
-    @MapsId("candidate_id")
+    @MapsId("candidateId")
     @JoinColumn(name = "candidate_id")
     Candidate candidate;
+
+    public JobApplicationKey getId() {
+        return id;
+    }
 }
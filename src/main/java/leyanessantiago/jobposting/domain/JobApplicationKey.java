@@ -3,13 +3,58 @@ package leyanessantiago.jobposting.domain;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import java.io.Serializable;
+import java.util.Objects;
 
 @Embeddable
 public class JobApplicationKey implements Serializable {
 
+    private static final long serialVersionUID = 1L;
+
     @Column(name = "advertisement_id")
     Long advertisementId;
 
     @Column(name = "candidate_id")
     Long candidateId;
+
+    protected JobApplicationKey() {
+        // Needed by JPA.
+    }
+
+    public JobApplicationKey(Long advertisementId, Long candidateId) {
+        this.advertisementId = advertisementId;
+        this.candidateId = candidateId;
+    }
+
+    public Long getAdvertisementId() {
+        return advertisementId;
+    }
+
+    public Long getCandidateId() {
+        return candidateId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobApplicationKey)) {
+            return false;
+        }
+        JobApplicationKey other = (JobApplicationKey) o;
+        return Objects.equals(advertisementId, other.advertisementId) && Objects.equals(candidateId, other.candidateId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(advertisementId, candidateId);
+    }
+
+    @Override
+    public String toString() {
+        return "JobApplicationKey{" +
+            "advertisementId=" + advertisementId +
+            ", candidateId=" + candidateId +
+            "}";
+    }
 }
@@ -3,9 +3,12 @@ package leyanessantiago.jobposting.repository;
 import leyanessantiago.jobposting.domain.Advertisement;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,9 +24,25 @@ public interface AdvertisementRepository extends JpaRepository<Advertisement, Lo
     @Query(value = "select advertisement from Advertisement advertisement where advertisement.user.login = ?#{principal.username}")
     Page<Advertisement> findByUserIsCurrentUser(Pageable pageable);
 
+    @Query(value = "select advertisement from Advertisement advertisement where advertisement.user.login = ?#{principal.username} and advertisement.id > ?1")
+    Slice<Advertisement> findByUserIsCurrentUserAndIdGreaterThan(Long id, Pageable pageable);
+
     @Query("select advertisement from Advertisement advertisement where advertisement.active = true")
     List<Advertisement> findByActiveIsActive();
 
+    @Query("select advertisement from Advertisement advertisement join fetch advertisement.profession join fetch advertisement.user where advertisement.active = true order by advertisement.id")
+    List<Advertisement> findAllActiveWithEagerRelationships();
+
+    /**
+     * The number of advertisements and their last modification date, which change with any write. It is the version
+     * checked by the snapshots of the other nodes, so it is never cached.
+     */
+    @Query("select count(advertisement), max(advertisement.lastModifiedDate) from Advertisement advertisement")
+    List<Object[]> findCountAndLastModifiedDate();
+
+    @Query("select advertisement.id, advertisement.title, advertisement.description, advertisement.profession.id from Advertisement advertisement where advertisement.active = true")
+    List<Object[]> findAllActiveSearchFields();
+
     @Query("select count(advertisement) from Advertisement advertisement where advertisement.active = true and advertisement.user.login = ?#{principal.username}")
     Long countActiveByUserIsCurrentUser();
 
@@ -32,4 +51,13 @@ public interface AdvertisementRepository extends JpaRepository<Advertisement, Lo
 
     @Query("select advertisement.profession.id, count(advertisement) from Advertisement advertisement where advertisement.active = true and advertisement.user.login = ?#{principal.username} group by (advertisement.profession.id)")
     List<Object[]> countActiveByProfessionByUserIsCurrentUser();
+
+    @Query("select advertisement.profession.id, advertisement.user.login, count(advertisement) from Advertisement advertisement where advertisement.active = true group by advertisement.profession.id, advertisement.user.login")
+    List<Object[]> countActiveByProfessionAndUser();
+
+    @Query("select advertisement.active, advertisement.profession.id, advertisement.user.login from Advertisement advertisement where advertisement.id = :id")
+    List<Object[]> findCounterKeyById(@Param("id") Long id);
+
+    @Query("select advertisement.id, advertisement.profession.id, advertisement.user.login from Advertisement advertisement where advertisement.id in :ids")
+    List<Object[]> findCounterKeysByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -3,10 +3,12 @@ package leyanessantiago.jobposting.repository;
 import leyanessantiago.jobposting.domain.Candidate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,16 +25,43 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     @Query("select distinct candidate from Candidate candidate left join fetch candidate.advertisements")
     List<Candidate> findAllWithEagerRelationships();
 
+    @Query("select distinct candidate from Candidate candidate left join fetch candidate.advertisements where candidate.id in :ids order by candidate.id")
+    List<Candidate> findAllWithEagerRelationshipsByIdIn(@Param("ids") List<Long> ids);
+
+    Slice<Candidate> findByIdGreaterThan(Long id, Pageable pageable);
+
     @Query("select candidate from Candidate candidate left join fetch candidate.advertisements where candidate.id =:id")
     Optional<Candidate> findOneWithEagerRelationships(@Param("id") Long id);
 
     @Query("select candidate from Candidate candidate left join fetch candidate.advertisements where candidate.email =:email")
     Candidate findByEmailWithEagerRelationships(@Param("email") String email);
 
+    Optional<Candidate> findOneByEmail(String email);
+
     @Query("select advertisement.profession.id, count(jobApplication.candidate.id) from JobApplication jobApplication, Advertisement advertisement where jobApplication.advertisement.id = advertisement.id group by (advertisement.profession.id)")
     List<Object[]> countByProfession();
 
     @Query("select advertisement.profession.id, count(jobApplication.candidate.id) from JobApplication jobApplication, Advertisement advertisement where jobApplication.advertisement.id = advertisement.id and advertisement.user.login = ?#{principal.username} group by (advertisement.profession.id)")
     List<Object[]> countByProfessionByUserIsCurrentUser();
 
+    @Query("select advertisement.profession.id, advertisement.user.login, count(jobApplication.candidate.id) from JobApplication jobApplication, Advertisement advertisement where jobApplication.advertisement.id = advertisement.id group by advertisement.profession.id, advertisement.user.login")
+    List<Object[]> countByProfessionAndUser();
+
+    /**
+     * The number of job applications and the sums of their keys, which change with any insert or delete, without
+     * joining the advertisements.
+     */
+    @Query("select count(jobApplication), sum(jobApplication.id.candidateId), sum(jobApplication.id.advertisementId) from JobApplication jobApplication")
+    List<Object[]> findApplicationsCountAndKeySums();
+
+    @Query("select advertisement.profession.id, advertisement.user.login from Candidate candidate join candidate.advertisements advertisement where candidate.id = :id")
+    List<Object[]> findApplicationKeysByCandidateId(@Param("id") Long id);
+
+    @Query("select candidate.id, candidate.email, candidate.firstName, candidate.lastName from Candidate candidate where candidate.email in :emails")
+    List<Object[]> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("select candidate.id, advertisement.id from Candidate candidate join candidate.advertisements advertisement where candidate.id in :candidateIds and advertisement.id in :advertisementIds")
+    List<Object[]> findApplicationIdsByCandidateIdInAndAdvertisementIdIn(@Param("candidateIds") Collection<Long> candidateIds,
+                                                                         @Param("advertisementIds") Collection<Long> advertisementIds);
+
 }
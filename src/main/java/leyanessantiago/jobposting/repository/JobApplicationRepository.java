@@ -0,0 +1,16 @@
+package leyanessantiago.jobposting.repository;
+
+import leyanessantiago.jobposting.domain.JobApplication;
+import leyanessantiago.jobposting.domain.JobApplicationKey;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+
+/**
+ * Spring Data  repository for the JobApplication entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface JobApplicationRepository extends JpaRepository<JobApplication, JobApplicationKey> {
+
+}
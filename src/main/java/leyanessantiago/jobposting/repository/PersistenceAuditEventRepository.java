@@ -3,9 +3,13 @@ package leyanessantiago.jobposting.repository;
 import leyanessantiago.jobposting.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,7 +23,23 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfter(String principal, Instant after);
 
-    List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(String principal, Instant after, String type);
+    @Query("select distinct persistentAuditEvent from PersistentAuditEvent persistentAuditEvent left join fetch persistentAuditEvent.data " +
+        "where persistentAuditEvent.principal = :principal and persistentAuditEvent.auditEventDate > :after and persistentAuditEvent.auditEventType = :type")
+    List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(@Param("principal") String principal, @Param("after") Instant after, @Param("type") String type);
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
+
+    Slice<PersistentAuditEvent> findByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Load the data of some events in one query.
+     * <p>
+     * The data maps of the events already loaded in the persistence context are initialized from the
+     * result, so this is used to load the data of a page of events at once.
+     *
+     * @param ids the ids of the events.
+     * @return the events, with their data.
+     */
+    @Query("select distinct persistentAuditEvent from PersistentAuditEvent persistentAuditEvent left join fetch persistentAuditEvent.data where persistentAuditEvent.id in :ids")
+    List<PersistentAuditEvent> findAllWithDataByIdIn(@Param("ids") Collection<Long> ids);
 }
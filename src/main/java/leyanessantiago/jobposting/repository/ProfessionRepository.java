@@ -1,6 +1,8 @@
 package leyanessantiago.jobposting.repository;
 
 import leyanessantiago.jobposting.domain.Profession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -12,4 +14,5 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ProfessionRepository extends JpaRepository<Profession, Long> {
 
+    Slice<Profession> findByIdGreaterThan(Long id, Pageable pageable);
 }
@@ -6,8 +6,11 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -29,6 +32,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    @Query("select user.id, user.login, user.email from User user where user.activated = false and user.activationKey is not null " +
+        "and user.createdDate < :createdDate and user.id > :id order by user.id")
+    List<Object[]> findNotActivatedUserKeysByCreatedDateBeforeAndIdGreaterThan(@Param("createdDate") Instant createdDate, @Param("id") Long id, Pageable pageable);
+
 
     Optional<User> findOneByResetKey(String resetKey);
 
@@ -48,4 +55,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    Slice<User> findAllByLoginNotAndIdGreaterThan(String login, Long id, Pageable pageable);
 }
@@ -0,0 +1,169 @@
+package leyanessantiago.jobposting.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable set of authorities, stored as a bitset.
+ * <p>
+ * Authorities are interned in a registry: each name maps to one canonical {@link GrantedAuthority} and to a
+ * bit, so checking whether a set contains an authority is a map lookup and a mask. The known authorities of
+ * {@link AuthoritiesConstants} are registered upfront. Only the first 64 authorities get a bit, the other
+ * ones are checked by name, and the registry stops growing after {@link #MAX_REGISTERED} authorities.
+ */
+public final class AuthoritySet {
+
+    private static final int MAX_REGISTERED = 1024;
+
+    private static final int MAX_PARSED_CLAIMS = 256;
+
+    private static final ConcurrentMap<String, Registered> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, AuthoritySet> PARSED_CLAIMS = new ConcurrentHashMap<>();
+
+    public static final AuthoritySet EMPTY = new AuthoritySet(0L, Collections.emptyList());
+
+    static {
+        intern(AuthoritiesConstants.ADMIN);
+        intern(AuthoritiesConstants.USER);
+        intern(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    private final long bits;
+
+    private final List<GrantedAuthority> authorities;
+
+    private AuthoritySet(long bits, List<GrantedAuthority> authorities) {
+        this.bits = bits;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Get the canonical instance of an authority.
+     *
+     * @param authority the name of the authority.
+     * @return the shared {@link GrantedAuthority}.
+     */
+    public static GrantedAuthority intern(String authority) {
+        Registered registered = REGISTRY.get(authority);
+        if (registered == null) {
+            registered = register(authority);
+        }
+        return registered.authority;
+    }
+
+    /**
+     * Get the set of some authorities.
+     *
+     * @param authorities the authorities.
+     * @return the set of authorities, holding their canonical instances.
+     */
+    public static AuthoritySet of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities.isEmpty()) {
+            return EMPTY;
+        }
+        long bits = 0L;
+        List<GrantedAuthority> canonical = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            Registered registered = REGISTRY.get(authority.getAuthority());
+            if (registered == null) {
+                registered = register(authority.getAuthority());
+            }
+            if (registered.mask == 0L || (bits & registered.mask) == 0L) {
+                bits |= registered.mask;
+                canonical.add(registered.authority);
+            }
+        }
+        return new AuthoritySet(bits, Collections.unmodifiableList(canonical));
+    }
+
+    /**
+     * Get the set of the authorities of a token claim.
+     * <p>
+     * The sets of the most common claims are reused, so parsing a known claim doesn't allocate.
+     *
+     * @param claim the comma-separated authorities.
+     * @return the set of authorities.
+     */
+    public static AuthoritySet parse(String claim) {
+        AuthoritySet authoritySet = PARSED_CLAIMS.get(claim);
+        if (authoritySet == null) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (String authority : claim.split(",")) {
+                if (!authority.isEmpty()) {
+                    authorities.add(intern(authority));
+                }
+            }
+            authoritySet = of(authorities);
+            if (PARSED_CLAIMS.size() < MAX_PARSED_CLAIMS) {
+                PARSED_CLAIMS.putIfAbsent(claim, authoritySet);
+            }
+        }
+        return authoritySet;
+    }
+
+    /**
+     * Check whether the set contains an authority.
+     *
+     * @param authority the name of the authority.
+     * @return true if the set contains the authority.
+     */
+    public boolean contains(String authority) {
+        Registered registered = REGISTRY.get(authority);
+        if (registered != null && registered.mask != 0L) {
+            return (bits & registered.mask) != 0L;
+        }
+        for (GrantedAuthority grantedAuthority : authorities) {
+            if (grantedAuthority.getAuthority().equals(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the authorities of the set.
+     *
+     * @return the unmodifiable list of the canonical authorities.
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    private static Registered register(String authority) {
+        synchronized (REGISTRY) {
+            Registered registered = REGISTRY.get(authority);
+            if (registered == null && REGISTRY.size() >= MAX_REGISTERED) {
+                return new Registered(new SimpleGrantedAuthority(authority), 0L);
+            }
+            if (registered == null) {
+                long mask = REGISTRY.size() < Long.SIZE ? 1L << REGISTRY.size() : 0L;
+                registered = new Registered(new SimpleGrantedAuthority(authority), mask);
+                REGISTRY.put(authority, registered);
+            }
+            return registered;
+        }
+    }
+
+    /**
+     * A registered authority, with its bit, or a zero mask if the registry has no bit left.
+     */
+    private static final class Registered {
+
+        private final GrantedAuthority authority;
+
+        private final long mask;
+
+        Registered(GrantedAuthority authority, long mask) {
+            this.authority = authority;
+            this.mask = mask;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package leyanessantiago.jobposting.security;
+
+/**
+ * This exception is thrown when a password can't be hashed, as the password hashing pool is saturated.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
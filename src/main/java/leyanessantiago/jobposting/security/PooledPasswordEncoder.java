@@ -0,0 +1,152 @@
+package leyanessantiago.jobposting.security;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt password encoder running on a bounded pool, so a burst of logins doesn't hold every request thread
+ * on BCrypt.
+ * <p>
+ * The calling thread waits for the hash, but at most one hash per pool thread is computed at a time, and a
+ * {@link PasswordHashingRejectedException} is thrown right away once the queue is full. The cost is either
+ * configured, or calibrated at startup to the highest one hashing within the target latency. Passwords hashed
+ * with a lower cost are reported by {@link #upgradeEncoding(String)}, so they are rehashed on login. Nodes may
+ * calibrate to different costs, so a password hashed with a higher cost is kept, or they would rehash it back
+ * and forth.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(PooledPasswordEncoder.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final int strength;
+
+    private final BCryptPasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueTimer;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    public PooledPasswordEncoder(ApplicationProperties.PasswordHashing properties, MeterRegistry meterRegistry) {
+        this.strength = properties.getStrength() > 0 ? properties.getStrength() : calibrate(properties);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), new CustomizableThreadFactory("password-hashing-"));
+        log.info("Hashing passwords with a BCrypt cost of {} on {} threads", strength, threads);
+
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("The number of password hashes waiting for a thread")
+            .register(meterRegistry);
+        this.queueTimer = Timer.builder("password.hashing.queue")
+            .description("The time password hashes wait for a thread")
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing")
+            .description("The time spent hashing and verifying passwords")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing")
+            .description("The time spent hashing and verifying passwords")
+            .tag("operation", "matches")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("The number of password hashes rejected as the pool was saturated")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Each cost doubles the hashing time, so the time of the lowest cost tells the highest one within the target.
+     */
+    static int calibrate(ApplicationProperties.PasswordHashing properties) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(properties.getMinStrength());
+        // The first hash warms up the JIT.
+        encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        double elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        int doublings = (int) Math.floor(Math.log(properties.getTargetMs() / elapsedMs) / Math.log(2));
+        return Math.min(properties.getMaxStrength(), properties.getMinStrength() + Math.max(0, doublings));
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) < strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are being hashed");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,12 +1,12 @@
 package leyanessantiago.jobposting.security;
 
-import org.springframework.security.core.GrantedAuthority;
+import leyanessantiago.jobposting.security.jwt.JWTAuthenticationToken;
+
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -56,12 +56,7 @@ public final class SecurityUtils {
     public static boolean isAuthenticated() {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         return Optional.ofNullable(securityContext.getAuthentication())
-            .map(authentication -> {
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                    authorities.addAll(authentication.getAuthorities());
-                return authorities.stream()
-                    .noneMatch(grantedAuthority -> grantedAuthority.getAuthority().equals(AuthoritiesConstants.ANONYMOUS));
-            })
+            .map(authentication -> !getAuthoritySet(authentication).contains(AuthoritiesConstants.ANONYMOUS))
             .orElse(false);
     }
 
@@ -76,12 +71,14 @@ public final class SecurityUtils {
     public static boolean isCurrentUserInRole(String authority) {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         return Optional.ofNullable(securityContext.getAuthentication())
-            .map(authentication -> {
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                    authorities.addAll(authentication.getAuthorities());
-                return authorities.stream()
-                    .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals(authority));
-            })
+            .map(authentication -> getAuthoritySet(authentication).contains(authority))
             .orElse(false);
     }
+
+    private static AuthoritySet getAuthoritySet(Authentication authentication) {
+        if (authentication instanceof JWTAuthenticationToken) {
+            return ((JWTAuthenticationToken) authentication).getAuthoritySet();
+        }
+        return AuthoritySet.of(authentication.getAuthorities());
+    }
 }
@@ -0,0 +1,25 @@
+package leyanessantiago.jobposting.security.jwt;
+
+import leyanessantiago.jobposting.security.AuthoritySet;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+/**
+ * An {@link org.springframework.security.core.Authentication} built from a verified JWT, keeping its parsed
+ * authorities.
+ */
+public final class JWTAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AuthoritySet authoritySet;
+
+    public JWTAuthenticationToken(Object principal, String token, AuthoritySet authoritySet) {
+        super(principal, token, authoritySet.getAuthorities());
+        this.authoritySet = authoritySet;
+    }
+
+    public AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+}
@@ -15,15 +15,27 @@ import java.io.IOException;
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
  * found.
+ * <p>
+ * Verified tokens are cached until they expire, so a client sending the same token on every request only
+ * gets it parsed and verified once. Each request still gets its own authentication, built from the cached claims.
  */
 public class JWTFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
+    static final int MAX_CACHED_TOKENS = 10_000;
+
     private TokenProvider tokenProvider;
 
+    private final TokenCache tokenCache;
+
     public JWTFilter(TokenProvider tokenProvider) {
+        this(tokenProvider, MAX_CACHED_TOKENS);
+    }
+
+    JWTFilter(TokenProvider tokenProvider, int maxCachedTokens) {
         this.tokenProvider = tokenProvider;
+        this.tokenCache = new TokenCache(maxCachedTokens);
     }
 
     @Override
@@ -31,13 +43,29 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Authentication authentication = resolveAuthentication(jwt);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private Authentication resolveAuthentication(String jwt) {
+        String digest = TokenCache.digest(jwt);
+        long now = System.currentTimeMillis();
+        VerifiedToken verifiedToken = tokenCache.get(digest, now);
+        if (verifiedToken == null) {
+            verifiedToken = this.tokenProvider.verifyToken(jwt);
+            if (verifiedToken == null) {
+                return null;
+            }
+            tokenCache.put(digest, verifiedToken, now);
+        }
+        return verifiedToken.toAuthentication();
+    }
+
     private String resolveToken(HttpServletRequest request){
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
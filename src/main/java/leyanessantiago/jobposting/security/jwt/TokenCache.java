@@ -0,0 +1,88 @@
+package leyanessantiago.jobposting.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache of verified tokens, keyed by their SHA-256 digest.
+ * <p>
+ * An entry is never returned once its token has expired, and tokens without an expiration are not cached. When the
+ * cache is full, the expired entries are purged first, then arbitrary ones, until it is back to 90% of its capacity.
+ */
+final class TokenCache {
+
+    private final int maxEntries;
+
+    private final ConcurrentMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    TokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a verified token.
+     *
+     * @param digest the digest of the token, see {@link #digest(String)}.
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the verified token, or {@code null} if the token is not cached or has expired.
+     */
+    VerifiedToken get(String digest, long now) {
+        VerifiedToken verifiedToken = entries.get(digest);
+        if (verifiedToken != null && verifiedToken.getExpiration() <= now) {
+            entries.remove(digest, verifiedToken);
+            return null;
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Cache a verified token.
+     *
+     * @param digest the digest of the token, see {@link #digest(String)}.
+     * @param verifiedToken the verified token.
+     * @param now the current time, in milliseconds since the epoch.
+     */
+    void put(String digest, VerifiedToken verifiedToken, long now) {
+        if (verifiedToken.getExpiration() == null || verifiedToken.getExpiration() <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(digest, verifiedToken);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(verifiedToken -> verifiedToken.getExpiration() <= now);
+        Iterator<VerifiedToken> iterator = entries.values().iterator();
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Get the digest of a token, used as a fixed-size cache key.
+     *
+     * @param token the token.
+     * @return the Base64-encoded SHA-256 digest of the token.
+     */
+    static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
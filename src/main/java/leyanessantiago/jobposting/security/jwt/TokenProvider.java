@@ -8,14 +8,13 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import leyanessantiago.jobposting.security.AuthoritySet;
+
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -87,20 +86,26 @@ public class TokenProvider implements InitializingBean {
             .parseClaimsJws(token)
             .getBody();
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return toVerifiedToken(claims, token).toAuthentication();
     }
 
     public boolean validateToken(String authToken) {
+        return verifyToken(authToken) != null;
+    }
+
+    /**
+     * Validate a token and read its claims, parsing and verifying it only once.
+     *
+     * @param authToken the token.
+     * @return the verified token, or {@code null} if the token is not valid.
+     */
+    public VerifiedToken verifyToken(String authToken) {
         try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
+            Claims claims = Jwts.parser()
+                .setSigningKey(key)
+                .parseClaimsJws(authToken)
+                .getBody();
+            return toVerifiedToken(claims, authToken);
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
@@ -114,6 +119,13 @@ public class TokenProvider implements InitializingBean {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+        return null;
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims, String token) {
+        AuthoritySet authorities = AuthoritySet.parse(claims.get(AUTHORITIES_KEY).toString());
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedToken(token, claims.getSubject(), authorities, expiration != null ? expiration.getTime() : null);
     }
 }
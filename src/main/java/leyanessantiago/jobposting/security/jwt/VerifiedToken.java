@@ -0,0 +1,56 @@
+package leyanessantiago.jobposting.security.jwt;
+
+import leyanessantiago.jobposting.security.AuthoritySet;
+
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * The claims of a verified JWT, which can be shared by all the requests carrying the same token.
+ * <p>
+ * Each request gets its own {@link JWTAuthenticationToken}, built by {@link #toAuthentication()}, as an
+ * authentication is mutable.
+ */
+public final class VerifiedToken {
+
+    private final String token;
+
+    private final String subject;
+
+    private final AuthoritySet authoritySet;
+
+    private final Long expiration;
+
+    public VerifiedToken(String token, String subject, AuthoritySet authoritySet, Long expiration) {
+        this.token = token;
+        this.subject = subject;
+        this.authoritySet = authoritySet;
+        this.expiration = expiration;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+
+    /**
+     * Get the expiration time of the token.
+     *
+     * @return the expiration time, in milliseconds since the epoch, or {@code null} if the token doesn't expire.
+     */
+    public Long getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * Build a new authentication for the token.
+     *
+     * @return the authentication.
+     */
+    public JWTAuthenticationToken toAuthentication() {
+        User principal = new User(subject, "", authoritySet.getAuthorities());
+        return new JWTAuthenticationToken(principal, token, authoritySet);
+    }
+}
@@ -0,0 +1,248 @@
+package leyanessantiago.jobposting.security.ratelimit;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles the requests authenticating, registering or resetting the password of a user, before they reach
+ * BCrypt and the database.
+ * <p>
+ * Each request takes a token from the bucket of its client address, then from the bucket of its login or email.
+ * A request finding an empty bucket gets an empty {@code 429 Too Many Requests} response, with a
+ * {@code Retry-After} header.
+ * <p>
+ * The client address is the remote address of the request. Behind a load balancer, that is the address of the
+ * balancer, so when the remote address is a trusted proxy the client address is taken from the
+ * {@code X-Forwarded-For} header: it is its last address which isn't a trusted proxy, as the previous ones may be
+ * forged by the client.
+ */
+public class RateLimitingFilter extends GenericFilterBean {
+
+    private static final int MAX_BODY_SIZE = 4096;
+
+    /**
+     * An IPv4 or IPv6 literal, so the matchers don't resolve a host name read from a header.
+     */
+    private static final Pattern IP_ADDRESS = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final RequestMatcher authenticateMatcher = new AntPathRequestMatcher("/api/authenticate", HttpMethod.POST.name());
+
+    private final RequestMatcher registerMatcher = new AntPathRequestMatcher("/api/register", HttpMethod.POST.name());
+
+    private final RequestMatcher resetPasswordMatcher = new AntPathRequestMatcher("/api/account/reset-password/init", HttpMethod.POST.name());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final TokenBucketLimiter ipLimiter;
+
+    private final TokenBucketLimiter accountLimiter;
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RateLimitingFilter(ApplicationProperties.RateLimit properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitingFilter(ApplicationProperties.RateLimit properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.ipLimiter = new TokenBucketLimiter("ip", properties.getIp(), properties.getMaxKeys(),
+            properties.getStripes(), meterRegistry, clock);
+        this.accountLimiter = new TokenBucketLimiter("account", properties.getAccount(), properties.getMaxKeys(),
+            properties.getStripes(), meterRegistry, clock);
+        this.trustedProxies = properties.getTrustedProxies().stream()
+            .map(IpAddressMatcher::new)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        String accountField;
+        if (authenticateMatcher.matches(request)) {
+            accountField = "username";
+        } else if (registerMatcher.matches(request)) {
+            accountField = "email";
+        } else if (resetPasswordMatcher.matches(request)) {
+            accountField = null;
+        } else {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        long retryAfter = ipLimiter.tryAcquire(resolveClientAddress(request));
+        if (retryAfter == 0) {
+            CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+            String account = cachedBodyRequest.isComplete() ? resolveAccount(cachedBodyRequest.body, accountField) : null;
+            if (account != null) {
+                retryAfter = accountLimiter.tryAcquire(account);
+            }
+            request = cachedBodyRequest;
+        }
+        if (retryAfter > 0) {
+            HttpServletResponse response = (HttpServletResponse) servletResponse;
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            return;
+        }
+        filterChain.doFilter(request, servletResponse);
+    }
+
+    private String resolveClientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrustedProxy(address)) {
+            return address;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return address;
+        }
+        String[] forwardedAddresses = forwardedFor.split(",");
+        for (int i = forwardedAddresses.length - 1; i >= 0; i--) {
+            String forwardedAddress = forwardedAddresses[i].trim();
+            if (forwardedAddress.isEmpty()) {
+                continue;
+            }
+            address = forwardedAddress;
+            if (!isTrustedProxy(address)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (trustedProxies.isEmpty() || !IP_ADDRESS.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher trustedProxy : trustedProxies) {
+            try {
+                if (trustedProxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The login or email is a field of a JSON body, or the whole body for a password reset.
+     */
+    private String resolveAccount(byte[] body, String accountField) {
+        String account;
+        if (accountField == null) {
+            account = new String(body, StandardCharsets.UTF_8);
+        } else {
+            try {
+                JsonNode field = objectMapper.readTree(body).path(accountField);
+                account = field.isTextual() ? field.asText() : null;
+            } catch (IOException e) {
+                account = null;
+            }
+        }
+        if (account == null || account.trim().isEmpty()) {
+            return null;
+        }
+        return account.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * A request whose body is read up to {@link #MAX_BODY_SIZE} bytes, then replayed to the controllers.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private final ServletInputStream remainder;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.remainder = request.getInputStream();
+            byte[] buffer = new byte[MAX_BODY_SIZE + 1];
+            int length = 0;
+            int read;
+            while (length < buffer.length && (read = remainder.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+            this.body = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+
+        boolean isComplete() {
+            return body.length <= MAX_BODY_SIZE;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream cached = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public int read() throws IOException {
+                    int b = cached.read();
+                    return b != -1 || isComplete() ? b : remainder.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = cached.read(b, off, len);
+                    return read != -1 || isComplete() ? read : remainder.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return cached.available() == 0 && (isComplete() || remainder.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    remainder.setReadListener(readListener);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package leyanessantiago.jobposting.security.ratelimit;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by key, e.g. by client address.
+ * <p>
+ * The buckets are spread over lock stripes, each one keeping its least recently used buckets up to its share of
+ * the maximum number of keys, so the memory is bounded whatever the number of clients. An evicted key starts
+ * again with a full bucket.
+ */
+final class TokenBucketLimiter {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private final Stripe[] stripes;
+
+    private final LongSupplier clock;
+
+    private final Counter allowedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Counter evictedCounter;
+
+    TokenBucketLimiter(String name, ApplicationProperties.RateLimit.Limiter limiter, int maxKeys, int stripes,
+                       MeterRegistry meterRegistry, LongSupplier clock) {
+        this.capacity = limiter.getCapacity();
+        this.tokensPerNano = (double) limiter.getRefillTokens() / TimeUnit.SECONDS.toNanos(limiter.getRefillPeriodSeconds());
+        this.stripes = new Stripe[Math.max(1, stripes)];
+        int maxKeysPerStripe = Math.max(1, maxKeys / this.stripes.length);
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.clock = clock;
+
+        this.allowedCounter = Counter.builder("rate.limiter.requests")
+            .description("The number of requests checked by the rate limiter")
+            .tag("limiter", name)
+            .tag("result", "allowed")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("rate.limiter.requests")
+            .description("The number of requests checked by the rate limiter")
+            .tag("limiter", name)
+            .tag("result", "rejected")
+            .register(meterRegistry);
+        this.evictedCounter = Counter.builder("rate.limiter.evictions")
+            .description("The number of keys evicted from the rate limiter")
+            .tag("limiter", name)
+            .register(meterRegistry);
+        Gauge.builder("rate.limiter.keys", this, TokenBucketLimiter::size)
+            .description("The number of keys tracked by the rate limiter")
+            .tag("limiter", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return {@code 0} if a token was taken, or else the number of seconds until one is available.
+     */
+    long tryAcquire(String key) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+                if (stripe.evicted) {
+                    stripe.evicted = false;
+                    evictedCounter.increment();
+                }
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens--;
+                allowedCounter.increment();
+                return 0;
+            }
+            rejectedCounter.increment();
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+
+        private final Map<String, Bucket> buckets;
+
+        private boolean evicted;
+
+        Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    evicted = size() > maxKeys;
+                    return evicted;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
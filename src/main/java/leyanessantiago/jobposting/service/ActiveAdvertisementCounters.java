@@ -0,0 +1,195 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Service keeping the number of active advertisements per profession and per owner.
+ * <p>
+ * The counters are loaded from the database on first use, then maintained incrementally from the
+ * advertisement write paths, so the dashboard endpoints don't run a {@code GROUP BY} on every request.
+ * They are rebuilt from scratch when the advertisements changed in the database, checked every
+ * {@link #REFRESH_INTERVAL_MS}, to pick up the writes done by other nodes and fix any drift.
+ * <p>
+ * The changes recorded while the counters are being rebuilt are replayed on the rebuilt counters, so they
+ * aren't lost when the rebuilt counters replace the current ones. A change committed just before the rebuild
+ * may be counted twice that way, so such a rebuild is followed by another one on the next refresh.
+ */
+@Service
+public class ActiveAdvertisementCounters {
+
+    static final long REFRESH_INTERVAL_MS = 60_000;
+
+    private final Logger log = LoggerFactory.getLogger(ActiveAdvertisementCounters.class);
+
+    private final AdvertisementRepository advertisementRepository;
+
+    private final Object rebuildLock = new Object();
+
+    private final Object changeLock = new Object();
+
+    private volatile ProfessionCounters counters;
+
+    /**
+     * The changes recorded during a rebuild, guarded by {@link #changeLock}.
+     */
+    private List<Consumer<ProfessionCounters>> pendingChanges;
+
+    private List<Object> version;
+
+    public ActiveAdvertisementCounters(AdvertisementRepository advertisementRepository) {
+        this.advertisementRepository = advertisementRepository;
+    }
+
+    /**
+     * Get the counter key of an advertisement.
+     *
+     * @param advertisementId the id of the advertisement.
+     * @return the key of the advertisement, or {@code null} if it doesn't exist or is not active.
+     */
+    public ProfessionCounters.Key findActiveKey(Long advertisementId) {
+        List<Object[]> rows = advertisementRepository.findCounterKeyById(advertisementId);
+        if (rows.isEmpty() || !Boolean.TRUE.equals(rows.get(0)[0])) {
+            return null;
+        }
+        return new ProfessionCounters.Key((Long) rows.get(0)[1], (String) rows.get(0)[2]);
+    }
+
+    /**
+     * Record a change of an advertisement.
+     *
+     * @param previous the key of the advertisement before the change, {@code null} if it was not active.
+     * @param current the key of the advertisement after the change, {@code null} if it is not active anymore.
+     */
+    public void update(ProfessionCounters.Key previous, ProfessionCounters.Key current) {
+        if (previous == null ? current == null : previous.equals(current)) {
+            return;
+        }
+        apply(loaded -> {
+            if (previous != null) {
+                loaded.add(previous, -1L);
+            }
+            if (current != null) {
+                loaded.add(current, 1L);
+            }
+        });
+    }
+
+    /**
+     * Get the number of active advertisements per profession.
+     *
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession() {
+        return getCounters().countByProfession();
+    }
+
+    /**
+     * Get the number of active advertisements per profession for one owner.
+     *
+     * @param login the login of the owner.
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession(String login) {
+        return getCounters().countByProfession(login);
+    }
+
+    /**
+     * Get the number of active advertisements of one owner.
+     *
+     * @param login the login of the owner.
+     * @return the count.
+     */
+    public long count(String login) {
+        return getCounters().count(login);
+    }
+
+    /**
+     * Rebuild the counters from the database.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            List<Consumer<ProfessionCounters>> changes = new ArrayList<>();
+            synchronized (changeLock) {
+                pendingChanges = changes;
+            }
+            ProfessionCounters rebuilt;
+            List<Object> loadedVersion;
+            try {
+                // Read first, so a write committed while counting is seen by the next refresh.
+                loadedVersion = findVersion();
+                rebuilt = ProfessionCounters.fromRows(advertisementRepository.countActiveByProfessionAndUser());
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                pendingChanges = null;
+                changes.forEach(change -> change.accept(rebuilt));
+                ProfessionCounters previous = counters;
+                if (previous != null && !previous.sameCountsAs(rebuilt)) {
+                    log.debug("Active advertisement counters changed in the database, they have been rebuilt");
+                }
+                counters = rebuilt;
+            }
+            // A replayed change may have been counted by the query too, the next refresh rebuilds them again.
+            version = changes.isEmpty() ? loadedVersion : null;
+            log.debug("Rebuilt active advertisement counters");
+        }
+    }
+
+    /**
+     * Rebuild the counters if the advertisements changed in the database since the last rebuild.
+     * <p>
+     * This is scheduled to get fired every {@link #REFRESH_INTERVAL_MS}.
+     */
+    @Scheduled(initialDelay = REFRESH_INTERVAL_MS, fixedDelay = REFRESH_INTERVAL_MS)
+    public void refresh() {
+        synchronized (rebuildLock) {
+            if (counters != null && !findVersion().equals(version)) {
+                rebuild();
+            }
+        }
+    }
+
+    private List<Object> findVersion() {
+        return Arrays.asList(advertisementRepository.findCountAndLastModifiedDate().get(0));
+    }
+
+    private void apply(Consumer<ProfessionCounters> change) {
+        synchronized (changeLock) {
+            // Counters that are not loaded yet get the change from the database, or from the replay.
+            if (counters != null) {
+                change.accept(counters);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private ProfessionCounters getCounters() {
+        ProfessionCounters loaded = counters;
+        if (loaded == null) {
+            synchronized (rebuildLock) {
+                if (counters == null) {
+                    rebuild();
+                }
+                loaded = counters;
+            }
+        }
+        return loaded;
+    }
+}
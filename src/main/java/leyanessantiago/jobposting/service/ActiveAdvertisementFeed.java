@@ -0,0 +1,183 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Advertisement;
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service serving the public feed of active advertisements from an in-memory snapshot.
+ * <p>
+ * The snapshot holds the active advertisements, with their profession and owner, sorted by id. It is
+ * versioned: every advertisement write invalidates it, and it also expires after
+ * {@link #SNAPSHOT_TIME_TO_LIVE} to pick up writes done by other nodes.
+ * <p>
+ * The {@code ETag} of a snapshot is a hash of its content, and its {@code Last-Modified} date is the last
+ * modification of an advertisement, so they only change with the data, and are the same on every node. Deleting
+ * an advertisement doesn't change the {@code Last-Modified} date, only the {@code ETag}, which is checked first.
+ * Unchanged feeds can then be answered with a {@code 304 (Not Modified)} without touching the database.
+ */
+@Service
+public class ActiveAdvertisementFeed {
+
+    static final Duration SNAPSHOT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(ActiveAdvertisementFeed.class);
+
+    private final AdvertisementRepository advertisementRepository;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public ActiveAdvertisementFeed(AdvertisementRepository advertisementRepository) {
+        this.advertisementRepository = advertisementRepository;
+    }
+
+    /**
+     * Invalidate the snapshot, after an advertisement has been created, updated or deleted.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Get the current snapshot of the active advertisements, loading it if needed.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            long loadedVersion = version.get();
+            Instant loadedAt = Instant.now();
+            List<Advertisement> advertisements = advertisementRepository.findAllActiveWithEagerRelationships();
+            // Over all the advertisements, so deactivating one is a modification of the feed.
+            Instant lastModified = (Instant) advertisementRepository.findCountAndLastModifiedDate().get(0)[1];
+            current = new Snapshot(hash(advertisements), loadedVersion, loadedAt,
+                lastModified != null ? lastModified : Instant.EPOCH, advertisements);
+            snapshot = current;
+            log.debug("Loaded {} active advertisements in the feed snapshot", advertisements.size());
+            return current;
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+            && current.version == version.get()
+            && current.loadedAt.plus(SNAPSHOT_TIME_TO_LIVE).isAfter(Instant.now());
+    }
+
+    /**
+     * Hash what the feed shows of the advertisements: a modification of an advertisement or of its owner changes
+     * their last modification date, and the profession is only shown by its name.
+     */
+    static String hash(List<Advertisement> advertisements) {
+        StringBuilder content = new StringBuilder();
+        for (Advertisement advertisement : advertisements) {
+            content.append(advertisement.getId())
+                .append(',').append(toEpochMilli(advertisement.getLastModifiedDate()))
+                .append(',').append(advertisement.getProfession().getId())
+                .append(',').append(advertisement.getProfession().getName())
+                .append(',').append(advertisement.getUser().getId())
+                .append(',').append(toEpochMilli(advertisement.getUser().getLastModifiedDate()))
+                .append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long toEpochMilli(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : null;
+    }
+
+    /**
+     * An immutable snapshot of the active advertisements, sorted by id.
+     */
+    public static final class Snapshot {
+
+        private final String eTag;
+
+        private final long version;
+
+        private final Instant loadedAt;
+
+        private final Instant lastModified;
+
+        private final List<Advertisement> advertisements;
+
+        private final long[] ids;
+
+        Snapshot(String eTag, long version, Instant loadedAt, Instant lastModified, List<Advertisement> advertisements) {
+            this.eTag = "\"" + eTag + "\"";
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.lastModified = lastModified;
+            this.advertisements = Collections.unmodifiableList(advertisements);
+            this.ids = advertisements.stream().mapToLong(Advertisement::getId).toArray();
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public Instant getLastModified() {
+            return lastModified;
+        }
+
+        public List<Advertisement> getAdvertisements() {
+            return advertisements;
+        }
+
+        /**
+         * Get an advertisement.
+         *
+         * @param id the id of the advertisement.
+         * @return the advertisement, or {@code null} if it is not in the snapshot.
+         */
+        public Advertisement get(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? advertisements.get(index) : null;
+        }
+
+        /**
+         * Get a page of advertisements, using the id of the last advertisement of the previous page as cursor.
+         *
+         * @param after the id of the last advertisement of the previous page.
+         * @param size the maximum number of advertisements to return.
+         * @return the page of advertisements.
+         */
+        public List<Advertisement> getPage(long after, int size) {
+            int index = Arrays.binarySearch(ids, after);
+            int from = index >= 0 ? index + 1 : -index - 1;
+            return advertisements.subList(from, Math.min(from + size, advertisements.size()));
+        }
+
+        /**
+         * Check whether there are advertisements after a given one.
+         *
+         * @param id the id of the advertisement.
+         * @return true if there are advertisements with a greater id.
+         */
+        public boolean hasAfter(long id) {
+            return ids.length > 0 && ids[ids.length - 1] > id;
+        }
+    }
+}
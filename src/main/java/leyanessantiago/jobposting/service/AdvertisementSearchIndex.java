@@ -0,0 +1,394 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Advertisement;
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the title and description of the active advertisements.
+ * <p>
+ * Text is lower-cased, stripped of accents and split on non alphanumeric characters. A query matches the
+ * advertisements containing all its terms, ranked with BM25, a title term weighting twice as much as a
+ * description term. A query only walks the postings of its rarest term, and checks the other terms against
+ * the term frequencies of each candidate, so its cost does not depend on the most common terms.
+ * <p>
+ * The index is built from the database when the application is ready (or on the first search), and kept up
+ * to date by the {@code AdvertisementResource} write paths. The writes of the other nodes are picked up by
+ * rebuilding the index when the number of advertisements or their last modification date has changed, which is
+ * checked every {@link #REFRESH_INTERVAL_MS}.
+ */
+@Service
+public class AdvertisementSearchIndex {
+
+    static final long REFRESH_INTERVAL_MS = 60_000;
+
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Logger log = LoggerFactory.getLogger(AdvertisementSearchIndex.class);
+
+    private final AdvertisementRepository advertisementRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    private long totalLength;
+
+    private volatile boolean loaded;
+
+    /**
+     * The number of advertisements and their last modification date when the index was built.
+     */
+    private volatile List<Object> version;
+
+    public AdvertisementSearchIndex(AdvertisementRepository advertisementRepository) {
+        this.advertisementRepository = advertisementRepository;
+    }
+
+    /**
+     * Index an advertisement, or remove it from the index if it is not active.
+     *
+     * @param advertisement the advertisement, with its profession.
+     */
+    public void index(Advertisement advertisement) {
+        if (!Boolean.TRUE.equals(advertisement.isActive())) {
+            remove(advertisement.getId());
+            return;
+        }
+        Document document = new Document(advertisement.getId(), advertisement.getProfession().getId(),
+            advertisement.getTitle(), advertisement.getDescription());
+        lock.writeLock().lock();
+        try {
+            removeDocument(advertisement.getId());
+            addDocument(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an advertisement from the index.
+     *
+     * @param advertisementId the id of the advertisement.
+     */
+    public void remove(Long advertisementId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(advertisementId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the active advertisements.
+     *
+     * @param query the text to search.
+     * @param professionId the profession to filter on, or {@code null} for all the professions.
+     * @param limit the maximum number of results.
+     * @return the ids of the best matching advertisements, best first, and the total number of matches.
+     */
+    public SearchResult search(String query, Long professionId, int limit) {
+        if (!loaded) {
+            synchronized (rebuildLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        List<String> terms = new ArrayList<>(termFrequencies(query, 1).keySet());
+        if (terms.isEmpty()) {
+            return new SearchResult(Collections.emptyList(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] termPostings = new Postings[terms.size()];
+            for (int i = 0; i < termPostings.length; i++) {
+                termPostings[i] = postings.get(terms.get(i));
+                if (termPostings[i] == null) {
+                    return new SearchResult(Collections.emptyList(), 0);
+                }
+            }
+            Arrays.sort(termPostings, (p1, p2) -> Integer.compare(p1.size, p2.size));
+            double[] idf = new double[termPostings.length];
+            for (int i = 0; i < idf.length; i++) {
+                idf[i] = Math.log(1 + (documents.size() - termPostings[i].size + 0.5) / (termPostings[i].size + 0.5));
+            }
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+
+            PriorityQueue<ScoredDocument> best = new PriorityQueue<>();
+            int total = 0;
+            Postings rarest = termPostings[0];
+            for (int i = 0; i < rarest.size; i++) {
+                Document document = documents.get(rarest.ids[i]);
+                if (professionId != null && document.professionId != professionId) {
+                    continue;
+                }
+                double score = 0;
+                double norm = K1 * (1 - B + B * document.length / averageLength);
+                for (int t = 0; t < termPostings.length && score >= 0; t++) {
+                    int tf = t == 0 ? rarest.frequencies[i] : document.frequency(termPostings[t].term);
+                    score = tf == 0 ? -1 : score + idf[t] * tf * (K1 + 1) / (tf + norm);
+                }
+                if (score < 0) {
+                    continue;
+                }
+                total++;
+                if (best.size() < limit) {
+                    best.add(new ScoredDocument(document.id, score));
+                } else if (limit > 0 && best.peek().score < score) {
+                    best.poll();
+                    best.add(new ScoredDocument(document.id, score));
+                }
+            }
+            Long[] ids = new Long[best.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = best.poll().id;
+            }
+            return new SearchResult(Arrays.asList(ids), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the index from the active advertisements of the database.
+     * <p>
+     * Concurrent rebuilds run one after the other.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            // Read first, so a write committed while loading the rows is seen by the next refresh.
+            List<Object> loadedVersion = findVersion();
+            List<Object[]> rows = advertisementRepository.findAllActiveSearchFields();
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                postings.clear();
+                totalLength = 0;
+                for (Object[] row : rows) {
+                    addDocument(new Document((Long) row[0], (Long) row[3], (String) row[1], (String) row[2]));
+                }
+                version = loadedVersion;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Indexed {} active advertisements", rows.size());
+        }
+    }
+
+    /**
+     * Rebuild the index if the advertisements have changed since it was built, e.g. on another node.
+     */
+    @Scheduled(initialDelay = REFRESH_INTERVAL_MS, fixedDelay = REFRESH_INTERVAL_MS)
+    public void refresh() {
+        if (loaded && !findVersion().equals(version)) {
+            rebuild();
+        }
+    }
+
+    private List<Object> findVersion() {
+        return Arrays.asList(advertisementRepository.findCountAndLastModifiedDate().get(0));
+    }
+
+    private void addDocument(Document document) {
+        documents.put(document.id, document);
+        totalLength += document.length;
+        for (int i = 0; i < document.terms.length; i++) {
+            String term = document.terms[i];
+            document.positions[i] = postings.computeIfAbsent(term, Postings::new).add(document.id, document.frequencies[i]);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (int i = 0; i < document.terms.length; i++) {
+            String term = document.terms[i];
+            Postings termPostings = postings.get(term);
+            int position = document.positions[i];
+            termPostings.removeAt(position);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            } else if (position < termPostings.size) {
+                // The last posting has been moved to the removed position.
+                Document moved = documents.get(termPostings.ids[position]);
+                moved.positions[Arrays.binarySearch(moved.terms, term)] = position;
+            }
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(String text, int weight) {
+        Map<String, Integer> frequencies = new TreeMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        for (String term : SEPARATORS.split(normalized)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                frequencies.merge(term, weight, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * The result of a search.
+     */
+    public static final class SearchResult {
+
+        private final List<Long> ids;
+
+        private final int total;
+
+        SearchResult(List<Long> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * An indexed advertisement, with its terms sorted for binary search, and its position in the postings of
+     * each of them.
+     */
+    private static final class Document {
+
+        private final long id;
+
+        private final long professionId;
+
+        private final String[] terms;
+
+        private final int[] frequencies;
+
+        private final int length;
+
+        private final int[] positions;
+
+        Document(long id, long professionId, String title, String description) {
+            this.id = id;
+            this.professionId = professionId;
+            Map<String, Integer> termFrequencies = termFrequencies(title, TITLE_WEIGHT);
+            termFrequencies(description, 1).forEach((term, frequency) -> termFrequencies.merge(term, frequency, Integer::sum));
+            this.terms = termFrequencies.keySet().toArray(new String[0]);
+            this.frequencies = new int[terms.length];
+            int documentLength = 0;
+            for (int i = 0; i < terms.length; i++) {
+                frequencies[i] = termFrequencies.get(terms[i]);
+                documentLength += frequencies[i];
+            }
+            this.length = documentLength;
+            this.positions = new int[terms.length];
+        }
+
+        int frequency(String term) {
+            int index = Arrays.binarySearch(terms, term);
+            return index >= 0 ? frequencies[index] : 0;
+        }
+    }
+
+    /**
+     * The advertisements containing a term, with the term frequency in each of them.
+     */
+    private static final class Postings {
+
+        private final String term;
+
+        private long[] ids = new long[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        /**
+         * @return the position of the posting.
+         */
+        int add(long id, int frequency) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ids[size] = id;
+            frequencies[size] = frequency;
+            return size++;
+        }
+
+        /**
+         * Remove a posting, moving the last one to its position.
+         */
+        void removeAt(int position) {
+            size--;
+            ids[position] = ids[size];
+            frequencies[position] = frequencies[size];
+        }
+    }
+
+    private static final class ScoredDocument implements Comparable<ScoredDocument> {
+
+        private final long id;
+
+        private final double score;
+
+        ScoredDocument(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredDocument other) {
+            return Double.compare(score, other.score);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package leyanessantiago.jobposting.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service exporting audit events as a stream.
+ * <p>
+ * The events and their data are read with a single forward-only query, ordered by date, and written as they
+ * are read: no entity is loaded in the persistence context and only the event being written is held in
+ * memory, so the size of an export is only bound by the time it takes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditEventExportService {
+
+    /**
+     * The format of an export.
+     */
+    public enum Format {
+        /** One JSON object per line. */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /** Comma-separated values, with a header line, the data of an event being a JSON object. */
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String CSV_HEADER = "timestamp,principal,type,data\n";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventExportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public AuditEventExportService(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the audit events of a time period.
+     *
+     * @param fromDate the start of the time period, inclusive.
+     * @param toDate the end of the time period, exclusive.
+     * @param format the format of the export.
+     * @param outputStream the stream to write the events to, which is not closed.
+     * @return the number of exported events.
+     */
+    public long exportByDates(Instant fromDate, Instant toDate, Format format, OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.setRootValueSeparator(null);
+            EventWriter eventWriter = new EventWriter(format, generator, outputStream);
+            if (format == Format.CSV) {
+                outputStream.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            jdbcTemplate.query(
+                "select e.event_id, e.event_date, e.principal, e.event_type, d.name, d.value " +
+                    "from jhi_persistent_audit_event e " +
+                    "left join jhi_persistent_audit_evt_data d on d.event_id = e.event_id " +
+                    "where e.event_date >= ? and e.event_date < ? " +
+                    "order by e.event_date, e.event_id",
+                eventWriter::processRow, toTimestamp(fromDate), toTimestamp(toDate));
+            eventWriter.flushEvent();
+            log.debug("Exported {} audit events between {} and {}", eventWriter.count, fromDate, toDate);
+            return eventWriter.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        // Dates are stored in UTC, see hibernate.jdbc.time_zone.
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    /**
+     * Gathers the rows of an event, one per data entry, and writes the event when the next one starts.
+     */
+    private final class EventWriter {
+
+        private final Format format;
+
+        private final JsonGenerator generator;
+
+        private final OutputStream outputStream;
+
+        private final Map<String, String> data = new LinkedHashMap<>();
+
+        private long eventId = -1;
+
+        private Instant timestamp;
+
+        private String principal;
+
+        private String type;
+
+        private long count;
+
+        EventWriter(Format format, JsonGenerator generator, OutputStream outputStream) {
+            this.format = format;
+            this.generator = generator;
+            this.outputStream = outputStream;
+        }
+
+        void processRow(ResultSet resultSet) throws SQLException {
+            long rowEventId = resultSet.getLong("event_id");
+            if (rowEventId != eventId) {
+                flushEvent();
+                eventId = rowEventId;
+                Timestamp eventDate = resultSet.getTimestamp("event_date");
+                timestamp = eventDate == null ? null : eventDate.toLocalDateTime().toInstant(ZoneOffset.UTC);
+                principal = resultSet.getString("principal");
+                type = resultSet.getString("event_type");
+            }
+            String name = resultSet.getString("name");
+            if (name != null) {
+                data.put(name, resultSet.getString("value"));
+            }
+        }
+
+        void flushEvent() {
+            if (eventId < 0) {
+                return;
+            }
+            try {
+                if (format == Format.CSV) {
+                    writeCsv();
+                } else {
+                    writeJson();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            eventId = -1;
+            data.clear();
+        }
+
+        private void writeJson() throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", timestamp == null ? null : timestamp.toString());
+            generator.writeStringField("principal", principal);
+            generator.writeStringField("type", type);
+            generator.writeObjectField("data", data);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        private void writeCsv() throws IOException {
+            StringWriter line = new StringWriter();
+            writeCsvValue(line, timestamp == null ? null : timestamp.toString());
+            line.write(',');
+            writeCsvValue(line, principal);
+            line.write(',');
+            writeCsvValue(line, type);
+            line.write(',');
+            writeCsvValue(line, objectMapper.writeValueAsString(data));
+            line.write('\n');
+            outputStream.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeCsvValue(Writer writer, String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
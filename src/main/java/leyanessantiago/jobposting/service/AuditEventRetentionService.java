@@ -0,0 +1,170 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service purging the audit events older than the retention period.
+ * <p>
+ * On PostgreSQL, {@code jhi_persistent_audit_event} is partitioned by month of {@code event_date}: the
+ * partitions entirely older than the retention period are detached and dropped, which doesn't scan or
+ * vacuum anything, and the partitions of the next months are created ahead. Elsewhere, and for the default
+ * partition, the old events are deleted by a range query on the {@code event_date} index.
+ */
+@Service
+public class AuditEventRetentionService {
+
+    static final String EVENT_TABLE = "jhi_persistent_audit_event";
+
+    static final String DEFAULT_PARTITION = EVENT_TABLE + "_default";
+
+    static final String PURGE_OLD_EVENTS_LOCK = "purgeOldAuditEvents";
+
+    private static final Duration PURGE_OLD_EVENTS_LOCK_DURATION = Duration.ofMinutes(30);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(EVENT_TABLE + "_y(\\d{4})m(\\d{2})");
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventRetentionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.AuditRetention properties;
+
+    private final JobLockService jobLockService;
+
+    private volatile Boolean partitioned;
+
+    public AuditEventRetentionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties, JobLockService jobLockService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getAuditRetention();
+        this.jobLockService = jobLockService;
+    }
+
+    /**
+     * Audit events older than the retention period are purged, and the partitions of the next months created.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:30 (am). The job runs on one node of the cluster at a time,
+     * see {@link JobLockService}.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void purgeOldEvents() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!jobLockService.tryLock(PURGE_OLD_EVENTS_LOCK, PURGE_OLD_EVENTS_LOCK_DURATION)) {
+            log.debug("Old audit events are being purged by another node");
+            return;
+        }
+        try {
+            purgeEventsBefore(Instant.now().minus(properties.getRetentionDays(), ChronoUnit.DAYS));
+        } finally {
+            jobLockService.unlock(PURGE_OLD_EVENTS_LOCK);
+        }
+    }
+
+    /**
+     * Purge the audit events older than a date.
+     *
+     * @param cutoff the date of the oldest event to keep.
+     * @return the number of purged events, including those of the dropped partitions.
+     */
+    public long purgeEventsBefore(Instant cutoff) {
+        if (!isPartitioned()) {
+            return deleteEventsBefore(EVENT_TABLE, cutoff);
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            createPartition(current.plusMonths(i));
+        }
+        long purged = 0;
+        LocalDateTime cutoffDateTime = LocalDateTime.ofInstant(cutoff, ZoneOffset.UTC);
+        for (String partition : findPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoffDateTime)) {
+                    purged += dropPartition(partition);
+                }
+            }
+        }
+        return purged + deleteEventsBefore(DEFAULT_PARTITION, cutoff);
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equals(databaseProductName) && jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid where c.relname = ?",
+                Long.class, EVENT_TABLE) > 0;
+            partitioned = result;
+        }
+        return result;
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList(
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "join pg_class p on p.oid = i.inhparent where p.relname = ?",
+            String.class, EVENT_TABLE);
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = String.format("%s_y%04dm%02d", EVENT_TABLE, month.getYear(), month.getMonthValue());
+        try {
+            jdbcTemplate.execute(String.format(
+                "create table if not exists %s partition of %s for values from ('%s') to ('%s')",
+                partition, EVENT_TABLE, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+        } catch (DataAccessException e) {
+            // The default partition already holds events of that month.
+            log.warn("Could not create audit event partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    private long dropPartition(String partition) {
+        return transactionTemplate.execute(status -> {
+            Long count = jdbcTemplate.queryForObject("select count(*) from " + partition, Long.class);
+            jdbcTemplate.update("delete from jhi_persistent_audit_evt_data where event_id in (select event_id from " + partition + ")");
+            jdbcTemplate.execute("alter table " + EVENT_TABLE + " detach partition " + partition);
+            jdbcTemplate.execute("drop table " + partition);
+            log.info("Dropped audit event partition {} holding {} events", partition, count);
+            return count;
+        });
+    }
+
+    private long deleteEventsBefore(String table, Instant cutoff) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(LocalDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("delete from jhi_persistent_audit_evt_data where event_id in " +
+                "(select event_id from " + table + " where event_date < ?)", cutoffTimestamp);
+            int deleted = jdbcTemplate.update("delete from " + table + " where event_date < ?", cutoffTimestamp);
+            log.debug("Deleted {} audit events older than {}", deleted, cutoff);
+            return (long) deleted;
+        });
+    }
+}
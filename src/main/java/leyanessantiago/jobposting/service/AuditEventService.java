@@ -1,20 +1,26 @@
 package leyanessantiago.jobposting.service;
 
 import leyanessantiago.jobposting.config.audit.AuditEventConverter;
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
 import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Service for managing audit events.
  * <p>
  * This is the default implementation to support SpringBoot Actuator {@code AuditEventRepository}.
+ * <p>
+ * The data of the events of a page is loaded with one query for the whole page, before they are converted.
  */
 @Service
 @Transactional
@@ -33,19 +39,48 @@ public class AuditEventService {
     }
 
     public Page<AuditEvent> findAll(Pageable pageable) {
-        return persistenceAuditEventRepository.findAll(pageable)
+        return fetchData(persistenceAuditEventRepository.findAll(pageable))
             .map(auditEventConverter::convertToAuditEvent);
     }
 
     public Page<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
-        return persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable)
+        return fetchData(persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable))
             .map(auditEventConverter::convertToAuditEvent);
     }
 
+    /**
+     * Get the events with an id greater than the given one, sorted by id.
+     * <p>
+     * The persistent events are returned, with their data loaded, as their id is needed to build the cursor
+     * of the next page; use {@link #toAuditEvent(PersistentAuditEvent)} to convert them.
+     *
+     * @param id the id of the last event of the previous page.
+     * @param pageable the pagination information, sorted by id.
+     * @return the slice of events.
+     */
+    public Slice<PersistentAuditEvent> findAllAfter(long id, Pageable pageable) {
+        return fetchData(persistenceAuditEventRepository.findByIdGreaterThan(id, pageable));
+    }
+
+    public AuditEvent toAuditEvent(PersistentAuditEvent persistentAuditEvent) {
+        return auditEventConverter.convertToAuditEvent(persistentAuditEvent);
+    }
+
     public Optional<AuditEvent> find(Long id) {
         return Optional.ofNullable(persistenceAuditEventRepository.findById(id))
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(auditEventConverter::convertToAuditEvent);
     }
+
+    private <S extends Slice<PersistentAuditEvent>> S fetchData(S events) {
+        List<Long> ids = new ArrayList<>(events.getNumberOfElements());
+        for (PersistentAuditEvent persistentAuditEvent : events) {
+            ids.add(persistentAuditEvent.getId());
+        }
+        if (!ids.isEmpty()) {
+            persistenceAuditEventRepository.findAllWithDataByIdIn(ids);
+        }
+        return events;
+    }
 }
@@ -0,0 +1,231 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+import leyanessantiago.jobposting.repository.CandidateRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Service keeping the number of job applications per profession and per advertiser.
+ * <p>
+ * Each new application changes exactly one counter, so the counters are maintained incrementally
+ * instead of joining {@code job_application} to {@code advertisement} on every request. Changes are
+ * bound to the current transaction: they are applied once it commits, and dropped if it rolls back.
+ * The counters are rebuilt from the live aggregate query when the applications or the advertisements changed in
+ * the database, checked every {@link #REFRESH_INTERVAL_MS} with queries that don't join the tables, to pick up the
+ * applications written by other nodes and fix any drift.
+ * <p>
+ * The changes applied while the counters are being rebuilt are replayed on the rebuilt counters, so they
+ * aren't lost when the rebuilt counters replace the current ones. A change committed just before the rebuild
+ * may be counted twice that way, so such a rebuild is followed by another one on the next refresh.
+ */
+@Service
+public class JobApplicationCounters {
+
+    static final long REFRESH_INTERVAL_MS = 60_000;
+
+    private final Logger log = LoggerFactory.getLogger(JobApplicationCounters.class);
+
+    private final CandidateRepository candidateRepository;
+
+    private final AdvertisementRepository advertisementRepository;
+
+    private final Object rebuildLock = new Object();
+
+    private final Object changeLock = new Object();
+
+    private volatile ProfessionCounters counters;
+
+    /**
+     * The changes applied during a rebuild, guarded by {@link #changeLock}.
+     */
+    private List<Consumer<ProfessionCounters>> pendingChanges;
+
+    private List<Object> version;
+
+    public JobApplicationCounters(CandidateRepository candidateRepository, AdvertisementRepository advertisementRepository) {
+        this.candidateRepository = candidateRepository;
+        this.advertisementRepository = advertisementRepository;
+    }
+
+    /**
+     * Get the counter keys of all the applications of a candidate.
+     *
+     * @param candidateId the id of the candidate.
+     * @return the keys, one per application.
+     */
+    public List<ProfessionCounters.Key> findKeysByCandidateId(Long candidateId) {
+        return toKeys(candidateRepository.findApplicationKeysByCandidateId(candidateId));
+    }
+
+    /**
+     * Record a new application.
+     *
+     * @param advertisementId the id of the advertisement the candidate applied for.
+     */
+    public void applicationAdded(Long advertisementId) {
+        List<Object[]> rows = advertisementRepository.findCounterKeyById(advertisementId);
+        if (!rows.isEmpty()) {
+            ProfessionCounters.Key key = new ProfessionCounters.Key((Long) rows.get(0)[1], (String) rows.get(0)[2]);
+            afterCommit(loaded -> loaded.add(key, 1L));
+        }
+    }
+
+    /**
+     * Record new applications in bulk.
+     *
+     * @param added the number of new applications, by counter key.
+     */
+    public void applicationsAdded(Map<ProfessionCounters.Key, Long> added) {
+        if (!added.isEmpty()) {
+            afterCommit(loaded -> added.forEach(loaded::add));
+        }
+    }
+
+    /**
+     * Record a change of the applications of a candidate.
+     *
+     * @param previous the keys of the applications before the change.
+     * @param current the keys of the applications after the change.
+     */
+    public void update(Collection<ProfessionCounters.Key> previous, Collection<ProfessionCounters.Key> current) {
+        afterCommit(loaded -> {
+            previous.forEach(key -> loaded.add(key, -1L));
+            current.forEach(key -> loaded.add(key, 1L));
+        });
+    }
+
+    /**
+     * Get the number of applications per profession.
+     *
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession() {
+        return getCounters().countByProfession();
+    }
+
+    /**
+     * Get the number of applications per profession for the advertisements of one user.
+     *
+     * @param login the login of the advertiser.
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession(String login) {
+        return getCounters().countByProfession(login);
+    }
+
+    /**
+     * Rebuild the counters from the database.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            List<Consumer<ProfessionCounters>> changes = new ArrayList<>();
+            synchronized (changeLock) {
+                pendingChanges = changes;
+            }
+            ProfessionCounters rebuilt;
+            List<Object> loadedVersion;
+            try {
+                // Read first, so a write committed while counting is seen by the next refresh.
+                loadedVersion = findVersion();
+                rebuilt = ProfessionCounters.fromRows(candidateRepository.countByProfessionAndUser());
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                pendingChanges = null;
+                changes.forEach(change -> change.accept(rebuilt));
+                ProfessionCounters previous = counters;
+                if (previous != null && !previous.sameCountsAs(rebuilt)) {
+                    log.debug("Job application counters changed in the database, they have been rebuilt");
+                }
+                counters = rebuilt;
+            }
+            // A replayed change may have been counted by the query too, the next refresh rebuilds them again.
+            version = changes.isEmpty() ? loadedVersion : null;
+            log.debug("Rebuilt job application counters");
+        }
+    }
+
+    /**
+     * Rebuild the counters if the applications or the advertisements changed in the database since the last
+     * rebuild, as moving an advertisement to another profession or owner moves its applications.
+     * <p>
+     * This is scheduled to get fired every {@link #REFRESH_INTERVAL_MS}.
+     */
+    @Scheduled(initialDelay = REFRESH_INTERVAL_MS, fixedDelay = REFRESH_INTERVAL_MS)
+    public void refresh() {
+        synchronized (rebuildLock) {
+            if (counters != null && !findVersion().equals(version)) {
+                rebuild();
+            }
+        }
+    }
+
+    private List<Object> findVersion() {
+        List<Object> loadedVersion = new ArrayList<>(Arrays.asList(candidateRepository.findApplicationsCountAndKeySums().get(0)));
+        loadedVersion.addAll(Arrays.asList(advertisementRepository.findCountAndLastModifiedDate().get(0)));
+        return loadedVersion;
+    }
+
+    private void afterCommit(Consumer<ProfessionCounters> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<ProfessionCounters> change) {
+        synchronized (changeLock) {
+            // Counters that are not loaded yet get the change from the database, or from the replay.
+            if (counters != null) {
+                change.accept(counters);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private ProfessionCounters getCounters() {
+        ProfessionCounters loaded = counters;
+        if (loaded == null) {
+            synchronized (rebuildLock) {
+                if (counters == null) {
+                    rebuild();
+                }
+                loaded = counters;
+            }
+        }
+        return loaded;
+    }
+
+    private static List<ProfessionCounters.Key> toKeys(List<Object[]> rows) {
+        List<ProfessionCounters.Key> keys = new ArrayList<>();
+        for (Object[] row : rows) {
+            keys.add(new ProfessionCounters.Key((Long) row[0], (String) row[1]));
+        }
+        return keys;
+    }
+}
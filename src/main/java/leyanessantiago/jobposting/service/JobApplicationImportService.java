@@ -0,0 +1,300 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Candidate;
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+import leyanessantiago.jobposting.repository.CandidateRepository;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportDTO;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportResultDTO;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportResultDTO.Status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service importing job applications in bulk.
+ * <p>
+ * Records are deduplicated in memory, then processed in chunks of {@link #CHUNK_SIZE}: each chunk resolves
+ * its candidates, advertisements and existing applications with one {@code IN} query each, persists the new
+ * candidates through batched inserts, and appends the {@code job_application} rows with a single JDBC batch.
+ * Existing candidates are never loaded with their applications.
+ * <p>
+ * Each chunk is committed in its own transaction, so a large import doesn't hold its locks and its persistence
+ * context until the end. When a chunk fails, its records are reported as {@link Status#FAILED} and the import
+ * goes on with the next chunk.
+ */
+@Service
+public class JobApplicationImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String INSERT_JOB_APPLICATION = "insert into job_application (candidate_id, advertisement_id) values (?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(JobApplicationImportService.class);
+
+    private final CandidateRepository candidateRepository;
+
+    private final AdvertisementRepository advertisementRepository;
+
+    private final JobApplicationCounters jobApplicationCounters;
+
+    private final JobApplicationService jobApplicationService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public JobApplicationImportService(CandidateRepository candidateRepository, AdvertisementRepository advertisementRepository,
+            JobApplicationCounters jobApplicationCounters, JobApplicationService jobApplicationService, JdbcTemplate jdbcTemplate,
+            EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.candidateRepository = candidateRepository;
+        this.advertisementRepository = advertisementRepository;
+        this.jobApplicationCounters = jobApplicationCounters;
+        this.jobApplicationService = jobApplicationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import job applications, creating the candidates that don't exist yet.
+     *
+     * @param applications the applications to import.
+     * @return the outcome of each application, in the same order.
+     */
+    public List<JobApplicationImportResultDTO> importApplications(List<JobApplicationImportDTO> applications) {
+        Import anImport = new Import(applications);
+        for (int from = 0; from < applications.size(); from += CHUNK_SIZE) {
+            Chunk chunk = new Chunk(from, Math.min(from + CHUNK_SIZE, applications.size()));
+            try {
+                transactionTemplate.execute(status -> {
+                    importChunk(anImport, chunk);
+                    return null;
+                });
+                anImport.created += chunk.created;
+                log.debug("Imported {} job applications from records {} to {}", chunk.created, chunk.from, chunk.to - 1);
+            } catch (RuntimeException e) {
+                log.warn("Could not import records {} to {}: {}", chunk.from, chunk.to - 1, e.getMessage());
+                anImport.failed(chunk);
+            }
+        }
+        log.debug("Imported {} job applications out of {} records", anImport.created, applications.size());
+        return Arrays.asList(anImport.results);
+    }
+
+    private void importChunk(Import anImport, Chunk chunk) {
+        List<Integer> pending = new ArrayList<>();
+        Set<String> unknownEmails = new HashSet<>();
+        Set<Long> unknownAdvertisementIds = new HashSet<>();
+        for (int i = chunk.from; i < chunk.to; i++) {
+            JobApplicationImportDTO application = anImport.applications.get(i);
+            String seenKey = isValid(application) ? application.getEmail() + '\n' + application.getAdvertisementId() : null;
+            if (seenKey == null) {
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.INVALID, null);
+            } else if (!anImport.seen.add(seenKey)) {
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.DUPLICATE, null);
+            } else {
+                chunk.seen.add(seenKey);
+                pending.add(i);
+                if (!anImport.candidates.containsKey(application.getEmail())) {
+                    unknownEmails.add(application.getEmail());
+                }
+                if (!anImport.advertisements.containsKey(application.getAdvertisementId())) {
+                    unknownAdvertisementIds.add(application.getAdvertisementId());
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (!unknownEmails.isEmpty()) {
+            for (Object[] row : candidateRepository.findSummariesByEmailIn(unknownEmails)) {
+                anImport.candidates.put((String) row[1], new CandidateSummary((Long) row[0], (String) row[2], (String) row[3]));
+            }
+        }
+        if (!unknownAdvertisementIds.isEmpty()) {
+            for (Object[] row : advertisementRepository.findCounterKeysByIdIn(unknownAdvertisementIds)) {
+                anImport.advertisements.put((Long) row[0], new ProfessionCounters.Key((Long) row[1], (String) row[2]));
+            }
+        }
+
+        // Resolve the candidates, creating the missing ones with the names of their first record.
+        List<Candidate> newCandidates = new ArrayList<>();
+        Map<String, Candidate> newCandidatesByEmail = new HashMap<>();
+        List<Integer> resolved = new ArrayList<>();
+        for (int i : pending) {
+            JobApplicationImportDTO application = anImport.applications.get(i);
+            CandidateSummary summary = anImport.candidates.get(application.getEmail());
+            if (!anImport.advertisements.containsKey(application.getAdvertisementId())) {
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.ADVERTISEMENT_NOT_FOUND, null);
+            } else if (summary != null && !summary.hasNames(application)) {
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.NAME_MISMATCH, summary.id);
+            } else {
+                if (summary == null) {
+                    Candidate candidate = new Candidate()
+                        .email(application.getEmail())
+                        .firstName(application.getFirstName())
+                        .lastName(application.getLastName());
+                    newCandidates.add(candidate);
+                    newCandidatesByEmail.put(candidate.getEmail(), candidate);
+                    chunk.newEmails.add(candidate.getEmail());
+                    anImport.candidates.put(candidate.getEmail(), new CandidateSummary(null, candidate.getFirstName(), candidate.getLastName()));
+                }
+                resolved.add(i);
+            }
+        }
+        for (Candidate candidate : candidateRepository.saveAll(newCandidates)) {
+            anImport.candidates.put(candidate.getEmail(), new CandidateSummary(candidate.getId(), candidate.getFirstName(), candidate.getLastName()));
+        }
+
+        // Skip the applications that already exist in the database.
+        Set<Long> candidateIds = new HashSet<>();
+        Set<Long> advertisementIds = new HashSet<>();
+        for (int i : resolved) {
+            JobApplicationImportDTO application = anImport.applications.get(i);
+            if (!newCandidatesByEmail.containsKey(application.getEmail())) {
+                candidateIds.add(anImport.candidates.get(application.getEmail()).id);
+                advertisementIds.add(application.getAdvertisementId());
+            }
+        }
+        Set<List<Long>> existingApplications = new HashSet<>();
+        if (!candidateIds.isEmpty()) {
+            for (Object[] row : candidateRepository.findApplicationIdsByCandidateIdInAndAdvertisementIdIn(candidateIds, advertisementIds)) {
+                existingApplications.add(Arrays.asList((Long) row[0], (Long) row[1]));
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        Map<ProfessionCounters.Key, Long> addedByKey = new HashMap<>();
+        Set<Long> touchedCandidateIds = new HashSet<>();
+        Set<Long> touchedAdvertisementIds = new HashSet<>();
+        for (int i : resolved) {
+            JobApplicationImportDTO application = anImport.applications.get(i);
+            Long candidateId = anImport.candidates.get(application.getEmail()).id;
+            if (existingApplications.contains(Arrays.asList(candidateId, application.getAdvertisementId()))) {
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.DUPLICATE, candidateId);
+            } else {
+                rows.add(new Object[]{candidateId, application.getAdvertisementId()});
+                anImport.results[i] = new JobApplicationImportResultDTO(i, Status.CREATED, candidateId);
+                addedByKey.merge(anImport.advertisements.get(application.getAdvertisementId()), 1L, Long::sum);
+                touchedCandidateIds.add(candidateId);
+                touchedAdvertisementIds.add(application.getAdvertisementId());
+                chunk.created++;
+            }
+        }
+
+        // The candidates must be inserted before the rows referencing them.
+        entityManager.flush();
+        entityManager.clear();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_JOB_APPLICATION, rows);
+        }
+        jobApplicationCounters.applicationsAdded(addedByKey);
+        jobApplicationService.evictCachesAfterCommit(touchedCandidateIds, touchedAdvertisementIds);
+    }
+
+    private static boolean isValid(JobApplicationImportDTO application) {
+        return application != null
+            && application.getAdvertisementId() != null
+            && !isBlank(application.getEmail())
+            && !isBlank(application.getFirstName())
+            && !isBlank(application.getLastName());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * The state of an import, shared by its chunks.
+     */
+    private static final class Import {
+
+        private final List<JobApplicationImportDTO> applications;
+
+        private final JobApplicationImportResultDTO[] results;
+
+        private final Set<String> seen = new HashSet<>();
+
+        private final Map<String, CandidateSummary> candidates = new HashMap<>();
+
+        private final Map<Long, ProfessionCounters.Key> advertisements = new HashMap<>();
+
+        private int created;
+
+        Import(List<JobApplicationImportDTO> applications) {
+            this.applications = applications;
+            this.results = new JobApplicationImportResultDTO[applications.size()];
+        }
+
+        /**
+         * Forget what a rolled back chunk added to the import, and report its valid records as failed.
+         */
+        void failed(Chunk chunk) {
+            seen.removeAll(chunk.seen);
+            candidates.keySet().removeAll(chunk.newEmails);
+            for (int i = chunk.from; i < chunk.to; i++) {
+                if (results[i] == null || results[i].getStatus() != Status.INVALID) {
+                    results[i] = new JobApplicationImportResultDTO(i, Status.FAILED, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * The records of an import committed in the same transaction.
+     */
+    private static final class Chunk {
+
+        private final int from;
+
+        private final int to;
+
+        private final Set<String> seen = new HashSet<>();
+
+        private final Set<String> newEmails = new HashSet<>();
+
+        private int created;
+
+        Chunk(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * The columns of a candidate needed by an import.
+     */
+    private static final class CandidateSummary {
+
+        private final Long id;
+
+        private final String firstName;
+
+        private final String lastName;
+
+        CandidateSummary(Long id, String firstName, String lastName) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        boolean hasNames(JobApplicationImportDTO application) {
+            return firstName.equals(application.getFirstName()) && lastName.equals(application.getLastName());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Advertisement;
+import leyanessantiago.jobposting.domain.Candidate;
+import leyanessantiago.jobposting.repository.CandidateRepository;
+import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Service class for managing job applications.
+ * <p>
+ * Applications are written as single {@code job_application} rows, so applying doesn't load, nor rewrite,
+ * the candidate's application history. The rows are written with plain JDBC, so the second-level caches of
+ * the affected collections are evicted explicitly.
+ */
+@Service
+@Transactional
+public class JobApplicationService {
+
+    private static final String INSERT_JOB_APPLICATION_IF_ABSENT = "insert into job_application (candidate_id, advertisement_id)"
+        + " select candidate.id, ? from candidate where candidate.id = ?"
+        + " and not exists (select 1 from job_application where candidate_id = ? and advertisement_id = ?)";
+
+    private final Logger log = LoggerFactory.getLogger(JobApplicationService.class);
+
+    private final CandidateRepository candidateRepository;
+
+    private final JobApplicationCounters jobApplicationCounters;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public JobApplicationService(CandidateRepository candidateRepository, JobApplicationCounters jobApplicationCounters,
+            JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.candidateRepository = candidateRepository;
+        this.jobApplicationCounters = jobApplicationCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Create a candidate with their applications, or add the applications to the candidate having the same email.
+     *
+     * @param candidate the candidate to create.
+     * @return the created or existing candidate, with their applications.
+     * @throws BadRequestAlertException if the candidate with the same email has other names, or already applied
+     * for one of the advertisements.
+     */
+    public Candidate createCandidate(Candidate candidate) {
+        Candidate result;
+        Optional<Candidate> existentCandidate = candidateRepository.findOneByEmail(candidate.getEmail());
+        if (existentCandidate.isPresent()) {
+            result = existentCandidate.get();
+            Boolean isChangingNames = !candidate.getFirstName().equals(result.getFirstName())
+                || !candidate.getLastName().equals(result.getLastName());
+            if (isChangingNames) {
+                throw new BadRequestAlertException("A candidate with the same email already exists, If you have any question please contact with the admin", "Candidate", "email");
+            }
+            // Each application appends one row, the applications of the candidate are not loaded.
+            for (Advertisement ads : candidate.getAdvertisements()) {
+                if (!apply(result.getId(), ads.getId())) {
+                    throw new BadRequestAlertException("You can only apply once for each advertisement", "Job Application", "jobApplication");
+                }
+                jobApplicationCounters.applicationAdded(ads.getId());
+            }
+            // The applications were written with JDBC, the candidate is returned with all of them.
+            result = candidateRepository.findOneWithEagerRelationships(result.getId()).orElse(result);
+        } else {
+            result = candidateRepository.save(candidate);
+            result.getAdvertisements().forEach(ads -> jobApplicationCounters.applicationAdded(ads.getId()));
+        }
+        return result;
+    }
+
+    /**
+     * Apply a candidate for an advertisement, unless they already applied.
+     * <p>
+     * The row is only inserted if absent, with a single statement. Concurrent applications are resolved by the
+     * primary key of {@code job_application}: the losing insert is rolled back to a savepoint, so the transaction
+     * can go on, and it is reported as already applied.
+     *
+     * @param candidateId the id of the candidate.
+     * @param advertisementId the id of the advertisement.
+     * @return true if the application has been created, false if it already existed.
+     */
+    public boolean apply(Long candidateId, Long advertisementId) {
+        Integer inserted = jdbcTemplate.execute(
+            (ConnectionCallback<Integer>) connection -> insertIfAbsent(connection, candidateId, advertisementId));
+        if (inserted == null || inserted == 0) {
+            return false;
+        }
+        evictCachesAfterCommit(Collections.singleton(candidateId), Collections.singleton(advertisementId));
+        return true;
+    }
+
+    private int insertIfAbsent(Connection connection, Long candidateId, Long advertisementId) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_JOB_APPLICATION_IF_ABSENT)) {
+            statement.setLong(1, advertisementId);
+            statement.setLong(2, candidateId);
+            statement.setLong(3, candidateId);
+            statement.setLong(4, advertisementId);
+            int inserted = statement.executeUpdate();
+            connection.releaseSavepoint(savepoint);
+            return inserted;
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            DataAccessException translated = jdbcTemplate.getExceptionTranslator()
+                .translate("apply", INSERT_JOB_APPLICATION_IF_ABSENT, e);
+            if (translated instanceof DuplicateKeyException) {
+                log.debug("Concurrent application of candidate {} for advertisement {}", candidateId, advertisementId);
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evict the cached applications of candidates and advertisements, once the current transaction commits.
+     *
+     * @param candidateIds the ids of the candidates.
+     * @param advertisementIds the ids of the advertisements.
+     */
+    void evictCachesAfterCommit(Collection<Long> candidateIds, Collection<Long> advertisementIds) {
+        if (candidateIds.isEmpty() && advertisementIds.isEmpty()) {
+            return;
+        }
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable eviction = () -> {
+            candidateIds.forEach(id -> cache.evictCollectionData(Candidate.class.getName() + ".advertisements", id));
+            advertisementIds.forEach(id -> cache.evictCollectionData(Advertisement.class.getName() + ".candidates", id));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
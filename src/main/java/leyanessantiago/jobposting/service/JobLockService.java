@@ -0,0 +1,86 @@
+package leyanessantiago.jobposting.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Service managing the locks of scheduled jobs, so a job runs on one node of a cluster at a time.
+ * <p>
+ * A lock is a row of {@code jhi_job_lock}, held by a node until a date: it is released when the job ends, or
+ * expires if the node dies. Locks are taken and released in their own transactions, so other nodes see them
+ * right away. A job running longer than its lock duration extends it by locking again.
+ */
+@Service
+public class JobLockService {
+
+    private final Logger log = LoggerFactory.getLogger(JobLockService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    public JobLockService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Take a lock, or extend it if this node already holds it.
+     *
+     * @param name the name of the lock.
+     * @param duration how long the lock is held at most.
+     * @return true if this node holds the lock.
+     */
+    public boolean tryLock(String name, Duration duration) {
+        Instant now = Instant.now();
+        Timestamp lockedAt = toTimestamp(now);
+        Timestamp lockedUntil = toTimestamp(now.plus(duration));
+        Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(
+            "update jhi_job_lock set locked_until = ?, locked_at = ?, locked_by = ? " +
+                "where name = ? and (locked_until <= ? or locked_by = ?)",
+            lockedUntil, lockedAt, owner, name, lockedAt, owner));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        try {
+            transactionTemplate.execute(status -> jdbcTemplate.update(
+                "insert into jhi_job_lock (name, locked_until, locked_at, locked_by) values (?, ?, ?, ?)",
+                name, lockedUntil, lockedAt, owner));
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Lock {} is held by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Release a lock held by this node.
+     *
+     * @param name the name of the lock.
+     */
+    public void unlock(String name) {
+        transactionTemplate.execute(status -> jdbcTemplate.update(
+            "update jhi_job_lock set locked_until = ? where name = ? and locked_by = ?",
+            toTimestamp(Instant.now()), name, owner));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
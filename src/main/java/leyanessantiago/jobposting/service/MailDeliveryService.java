@@ -0,0 +1,384 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service delivering emails from a persisted outbox.
+ * <p>
+ * A submitted mail is saved in {@code jhi_mail_outbox}, then put in a bounded queue. Workers take the
+ * mails from the queue by batches and send each batch over a single SMTP connection. A sent mail is deleted
+ * from the outbox; a mail that couldn't be sent is retried with an exponential backoff, up to
+ * {@code max-attempts} times, then marked as failed.
+ * <p>
+ * The outbox is polled for the mails to retry, the mails that didn't fit in the queue, and the mails left by
+ * a restart. A node claims an outbox mail for {@code lease-ms} before sending it, so each mail is sent by a
+ * single node of a cluster.
+ */
+@Service
+public class MailDeliveryService implements InitializingBean, DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailDeliveryService.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailDelivery properties;
+
+    private final BlockingQueue<OutboxMail> queue;
+
+    private final Counter sentMails;
+
+    private final Counter retriedMails;
+
+    private final Counter failedMails;
+
+    private final Timer deliveryLatency;
+
+    private final Timer batchDuration;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public MailDeliveryService(JavaMailSender javaMailSender, JHipsterProperties jHipsterProperties, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailDelivery();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        Gauge.builder("mail.delivery.queue.depth", queue, Collection::size)
+            .description("Number of mails waiting to be sent")
+            .register(meterRegistry);
+        this.sentMails = meterRegistry.counter("mail.delivery.mails", "result", "sent");
+        this.retriedMails = meterRegistry.counter("mail.delivery.mails", "result", "retried");
+        this.failedMails = meterRegistry.counter("mail.delivery.mails", "result", "failed");
+        this.deliveryLatency = Timer.builder("mail.delivery.latency")
+            .description("Time from the submission of a mail to its delivery to the SMTP server")
+            .register(meterRegistry);
+        this.batchDuration = Timer.builder("mail.delivery.batch")
+            .description("Time to send a batch of mails over one SMTP connection")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.isEnabled()) {
+            running = true;
+            for (int i = 0; i < Math.max(1, properties.getWorkers()); i++) {
+                Thread worker = new Thread(this::deliver, "mail-delivery-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    /**
+     * Check whether mails are delivered by this service. If not, they have to be sent directly.
+     *
+     * @return true if the service is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Save a mail in the outbox, and queue it once the current transaction, if any, is committed.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the content.
+     * @param isMultipart whether the mail is multipart.
+     * @param isHtml whether the content is HTML.
+     */
+    public void submit(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        Instant now = Instant.now();
+        OutboxMail mail = new OutboxMail(UUID.randomUUID().toString(), to, subject, content, isMultipart, isHtml, 0, now);
+        // The mail is claimed by this node, as it is queued right away.
+        transactionTemplate.execute(status -> jdbcTemplate.update(
+            "insert into jhi_mail_outbox (id, recipient, subject, content, multipart, html, attempts, failed, " +
+                "created_date, next_attempt_at) values (?, ?, ?, ?, ?, ?, 0, false, ?, ?)",
+            mail.id, to, subject, content, isMultipart, isHtml, toTimestamp(now), toTimestamp(now.plusMillis(properties.getLeaseMs()))));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(mail);
+                }
+            });
+        } else {
+            enqueue(mail);
+        }
+    }
+
+    private boolean enqueue(OutboxMail mail) {
+        if (!queue.offer(mail)) {
+            log.debug("Mail queue is full, the mail to '{}' will be sent from the outbox", mail.recipient);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queue the outbox mails that are due, and not claimed by a node.
+     * <p>
+     * This is scheduled to get fired every {@code poll-interval-ms}.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-delivery.poll-interval-ms:10000}")
+    public void pollOutbox() {
+        int capacity = queue.remainingCapacity();
+        if (!running || capacity == 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        Timestamp nowTimestamp = toTimestamp(now);
+        Timestamp leasedUntil = toTimestamp(now.plusMillis(properties.getLeaseMs()));
+        List<Object[]> due = jdbcTemplate.query(
+            "select id, recipient, subject, content, multipart, html, attempts, created_date, next_attempt_at from jhi_mail_outbox " +
+                "where failed = false and next_attempt_at <= ? order by next_attempt_at fetch first " + capacity + " rows only",
+            (resultSet, rowNum) -> new Object[] {
+                new OutboxMail(resultSet.getString("id"), resultSet.getString("recipient"), resultSet.getString("subject"),
+                    resultSet.getString("content"), resultSet.getBoolean("multipart"), resultSet.getBoolean("html"),
+                    resultSet.getInt("attempts"), resultSet.getTimestamp("created_date").toLocalDateTime().toInstant(ZoneOffset.UTC)),
+                resultSet.getTimestamp("next_attempt_at")
+            },
+            nowTimestamp);
+        List<OutboxMail> claimed = transactionTemplate.execute(status -> {
+            List<OutboxMail> mails = new ArrayList<>(due.size());
+            for (Object[] row : due) {
+                // Another node may have claimed the mail since it was read.
+                OutboxMail mail = (OutboxMail) row[0];
+                if (jdbcTemplate.update("update jhi_mail_outbox set next_attempt_at = ? where id = ? and next_attempt_at = ?",
+                        leasedUntil, mail.id, row[1]) == 1) {
+                    mails.add(mail);
+                }
+            }
+            return mails;
+        });
+        for (OutboxMail mail : claimed) {
+            if (!enqueue(mail)) {
+                break;
+            }
+        }
+    }
+
+    private void deliver() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<OutboxMail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OutboxMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The mails stay in the outbox, and are sent again once their lease is over.
+                log.error("Could not deliver {} mails", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Send a batch of mails over one SMTP connection, then delete the sent ones from the outbox and schedule
+     * the others for a retry.
+     */
+    private void send(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> messages = new LinkedHashMap<>();
+        for (OutboxMail mail : batch) {
+            try {
+                messages.put(createMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                fail(mail, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        Map<Object, Exception> failedMessages = Collections.emptyMap();
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                failedMessages = new LinkedHashMap<>();
+                for (MimeMessage message : messages.keySet()) {
+                    failedMessages.put(message, e);
+                }
+            }
+        } catch (MailException e) {
+            failedMessages = new LinkedHashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failedMessages.put(message, e);
+            }
+        }
+        batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        List<Object[]> sent = new ArrayList<>(messages.size());
+        Instant now = Instant.now();
+        for (Map.Entry<MimeMessage, OutboxMail> entry : messages.entrySet()) {
+            OutboxMail mail = entry.getValue();
+            Exception failure = failedMessages.get(entry.getKey());
+            if (failure == null) {
+                sent.add(new Object[] {mail.id});
+                deliveryLatency.record(Duration.between(mail.createdDate, now));
+            } else {
+                retry(mail, failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate("delete from jhi_mail_outbox where id = ?", sent));
+            sentMails.increment(sent.size());
+            log.debug("Sent {} mails", sent.size());
+        }
+    }
+
+    private MimeMessage createMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.multipart, StandardCharsets.UTF_8.name());
+        message.setTo(mail.recipient);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.subject);
+        message.setText(mail.content, mail.html);
+        return mimeMessage;
+    }
+
+    private void retry(OutboxMail mail, Exception failure) {
+        int attempts = mail.attempts + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            fail(mail, failure);
+            return;
+        }
+        long backoffMs = Math.min(properties.getMaxBackoffMs(),
+            properties.getInitialBackoffMs() << Math.min(attempts - 1, 30));
+        try {
+            transactionTemplate.execute(status -> jdbcTemplate.update(
+                "update jhi_mail_outbox set attempts = ?, last_error = ?, next_attempt_at = ? where id = ?",
+                attempts, truncate(failure.getMessage()), toTimestamp(Instant.now().plusMillis(backoffMs)), mail.id));
+            retriedMails.increment();
+            log.debug("Email could not be sent to user '{}', retrying in {} ms: {}", mail.recipient, backoffMs, failure.getMessage());
+        } catch (DataAccessException e) {
+            log.error("Could not schedule the retry of the mail to '{}'", mail.recipient, e);
+        }
+    }
+
+    private void fail(OutboxMail mail, Exception failure) {
+        transactionTemplate.execute(status -> jdbcTemplate.update(
+            "update jhi_mail_outbox set attempts = ?, last_error = ?, failed = true where id = ?",
+            mail.attempts + 1, truncate(failure.getMessage()), mail.id));
+        failedMails.increment();
+        log.warn("Email could not be sent to user '{}': {}", mail.recipient, failure.getMessage());
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // The queued mails are still in the outbox, claimed until their lease is over.
+        if (!queue.isEmpty()) {
+            log.info("{} mails will be sent from the outbox after the restart", queue.size());
+        }
+    }
+
+    /**
+     * A mail of the outbox.
+     */
+    private static final class OutboxMail {
+
+        private final String id;
+
+        private final String recipient;
+
+        private final String subject;
+
+        private final String content;
+
+        private final boolean multipart;
+
+        private final boolean html;
+
+        private final int attempts;
+
+        private final Instant createdDate;
+
+        OutboxMail(String id, String recipient, String subject, String content, boolean multipart, boolean html,
+                int attempts, Instant createdDate) {
+            this.id = id;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.content = content;
+            this.multipart = multipart;
+            this.html = html;
+            this.attempts = attempts;
+            this.createdDate = createdDate;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.User;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Renders the mail templates of users.
+ * <p>
+ * Parsed templates are cached by the template engine, when {@code spring.thymeleaf.cache} is enabled. The
+ * locales of the language keys and the subjects, per title key and locale, are cached here, so rendering a
+ * mail only processes its template. When the messages are reloadable ({@code spring.messages.cache-duration}
+ * is set, as in dev), the subjects are cleared as often as the message source reloads its bundles.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final int MAX_CACHED_ENTRIES = 256;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    /**
+     * How long the subjects are cached, in nanoseconds, or a negative value to cache them forever.
+     */
+    private final long subjectsTimeToLiveNanos;
+
+    private final ConcurrentMap<String, Locale> locales = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<SubjectKey, String> subjects = new ConcurrentHashMap<>();
+
+    private volatile long subjectsClearedAt = System.nanoTime();
+
+    public MailTemplateRenderer(SpringTemplateEngine templateEngine, MessageSource messageSource,
+            JHipsterProperties jHipsterProperties, @Value("${spring.messages.cache-duration:#{null}}") Duration messagesCacheDuration) {
+
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        this.subjectsTimeToLiveNanos = messagesCacheDuration != null ? messagesCacheDuration.toNanos() : -1;
+    }
+
+    /**
+     * Render the mail of a user.
+     *
+     * @param user the user.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered mail.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey) {
+        Locale locale = getLocale(user.getLangKey());
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, baseUrl);
+        return new RenderedMail(user, getSubject(titleKey, locale), templateEngine.process(templateName, context));
+    }
+
+    private Locale getLocale(String langKey) {
+        Locale locale = locales.get(langKey);
+        if (locale == null) {
+            locale = Locale.forLanguageTag(langKey);
+            if (locales.size() < MAX_CACHED_ENTRIES) {
+                locales.putIfAbsent(langKey, locale);
+            }
+        }
+        return locale;
+    }
+
+    private String getSubject(String titleKey, Locale locale) {
+        if (subjectsTimeToLiveNanos >= 0) {
+            long now = System.nanoTime();
+            if (now - subjectsClearedAt >= subjectsTimeToLiveNanos) {
+                subjects.clear();
+                subjectsClearedAt = now;
+            }
+        }
+        SubjectKey key = new SubjectKey(titleKey, locale);
+        String subject = subjects.get(key);
+        if (subject == null) {
+            subject = messageSource.getMessage(titleKey, null, locale);
+            if (subjects.size() < MAX_CACHED_ENTRIES) {
+                subjects.putIfAbsent(key, subject);
+            }
+        }
+        return subject;
+    }
+
+    /**
+     * The subject and content of the mail of a user.
+     */
+    public static final class RenderedMail {
+
+        private final User user;
+
+        private final String subject;
+
+        private final String content;
+
+        RenderedMail(User user, String subject, String content) {
+            this.user = user;
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+
+    private static final class SubjectKey {
+
+        private final String titleKey;
+
+        private final Locale locale;
+
+        SubjectKey(String titleKey, Locale locale) {
+            this.titleKey = titleKey;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubjectKey)) {
+                return false;
+            }
+            SubjectKey other = (SubjectKey) o;
+            return titleKey.equals(other.titleKey) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(titleKey, locale);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package leyanessantiago.jobposting.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters per profession and per (profession, owner), where the owner is the login of
+ * the {@link leyanessantiago.jobposting.domain.User} publishing an advertisement.
+ * <p>
+ * Each counter is a {@link LongAdder}, so concurrent writers on the same profession do not contend on a
+ * single cache line. Reads are O(professions).
+ */
+public final class ProfessionCounters {
+
+    private final ConcurrentMap<Long, LongAdder> byProfession = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, ConcurrentMap<Long, LongAdder>> byOwner = new ConcurrentHashMap<>();
+
+    /**
+     * Build counters from aggregate rows.
+     *
+     * @param rows rows of {@code (profession id, owner login, count)}.
+     * @return the counters.
+     */
+    public static ProfessionCounters fromRows(List<Object[]> rows) {
+        ProfessionCounters counters = new ProfessionCounters();
+        for (Object[] row : rows) {
+            counters.add(new Key((Long) row[0], (String) row[1]), ((Number) row[2]).longValue());
+        }
+        return counters;
+    }
+
+    public void add(Key key, long delta) {
+        byProfession.computeIfAbsent(key.getProfessionId(), id -> new LongAdder()).add(delta);
+        byOwner.computeIfAbsent(key.getOwner(), owner -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key.getProfessionId(), id -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Get the non-zero counts per profession.
+     *
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession() {
+        return snapshot(byProfession);
+    }
+
+    /**
+     * Get the non-zero counts per profession for one owner.
+     *
+     * @param owner the owner login.
+     * @return the counts, by profession id.
+     */
+    public Map<Long, Long> countByProfession(String owner) {
+        ConcurrentMap<Long, LongAdder> counters = byOwner.get(owner);
+        return counters == null ? Collections.emptyMap() : snapshot(counters);
+    }
+
+    /**
+     * Get the total count for one owner.
+     *
+     * @param owner the owner login.
+     * @return the count.
+     */
+    public long count(String owner) {
+        ConcurrentMap<Long, LongAdder> counters = byOwner.get(owner);
+        if (counters == null) {
+            return 0L;
+        }
+        long count = 0L;
+        for (LongAdder counter : counters.values()) {
+            count += counter.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Check whether two sets of counters hold the same non-zero values.
+     *
+     * @param other the counters to compare with.
+     * @return true if both hold the same values.
+     */
+    public boolean sameCountsAs(ProfessionCounters other) {
+        return countByProfession().equals(other.countByProfession())
+            && snapshotByOwner().equals(other.snapshotByOwner());
+    }
+
+    private Map<String, Map<Long, Long>> snapshotByOwner() {
+        Map<String, Map<Long, Long>> result = new HashMap<>();
+        byOwner.forEach((owner, counters) -> {
+            Map<Long, Long> counts = snapshot(counters);
+            if (!counts.isEmpty()) {
+                result.put(owner, counts);
+            }
+        });
+        return result;
+    }
+
+    private static Map<Long, Long> snapshot(Map<Long, LongAdder> counters) {
+        Map<Long, Long> result = new HashMap<>();
+        counters.forEach((professionId, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                result.put(professionId, count);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * A (profession, owner) counter key.
+     */
+    public static final class Key {
+
+        private final long professionId;
+
+        private final String owner;
+
+        public Key(long professionId, String owner) {
+            this.professionId = professionId;
+            this.owner = owner;
+        }
+
+        public long getProfessionId() {
+            return professionId;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return professionId == key.professionId && Objects.equals(owner, key.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(professionId, owner);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                "professionId=" + professionId +
+                ", owner='" + owner + "'" +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Profession;
+import leyanessantiago.jobposting.repository.ProfessionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory dictionary resolving a {@link Profession} id to its name.
+ * <p>
+ * The dictionary is loaded from the database on first use and then kept up to date by the
+ * {@code ProfessionResource} write paths. Lookups are a binary search over a sorted {@code long[]},
+ * so no boxing and no database round trip happen on the read path. An id that is not known yet
+ * (for example a profession inserted by another node) is resolved from the database once and added.
+ */
+@Service
+public class ProfessionDictionary {
+
+    private final Logger log = LoggerFactory.getLogger(ProfessionDictionary.class);
+
+    private final ProfessionRepository professionRepository;
+
+    /**
+     * Immutable snapshot, replaced as a whole on every write (copy-on-write).
+     */
+    private volatile Snapshot snapshot;
+
+    public ProfessionDictionary(ProfessionRepository professionRepository) {
+        this.professionRepository = professionRepository;
+    }
+
+    /**
+     * Get the name of a profession.
+     *
+     * @param professionId the id of the profession.
+     * @return the name of the profession, or {@code null} if it does not exist.
+     */
+    public String getName(long professionId) {
+        String name = getSnapshot().get(professionId);
+        if (name == null) {
+            name = professionRepository.findById(professionId).map(Profession::getName).orElse(null);
+            if (name != null) {
+                put(professionId, name);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Add or rename a profession.
+     *
+     * @param professionId the id of the profession.
+     * @param name the name of the profession.
+     */
+    public synchronized void put(long professionId, String name) {
+        snapshot = getSnapshot().with(professionId, name);
+    }
+
+    /**
+     * Remove a profession.
+     *
+     * @param professionId the id of the profession.
+     */
+    public synchronized void remove(long professionId) {
+        snapshot = getSnapshot().without(professionId);
+    }
+
+    /**
+     * Reload the whole dictionary from the database.
+     */
+    public synchronized void reload() {
+        List<Profession> professions = professionRepository.findAll();
+        long[] ids = new long[professions.size()];
+        String[] names = new String[professions.size()];
+        Profession[] sorted = professions.toArray(new Profession[0]);
+        Arrays.sort(sorted, (p1, p2) -> Long.compare(p1.getId(), p2.getId()));
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            names[i] = sorted[i].getName();
+        }
+        snapshot = new Snapshot(ids, names);
+        log.debug("Loaded {} professions in the profession dictionary", ids.length);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+
+        private final String[] names;
+
+        Snapshot(long[] ids, String[] names) {
+            this.ids = ids;
+            this.names = names;
+        }
+
+        String get(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? names[index] : null;
+        }
+
+        Snapshot with(long id, String name) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                String[] newNames = names.clone();
+                newNames[index] = name;
+                return new Snapshot(ids, newNames);
+            }
+            int insertion = -index - 1;
+            long[] newIds = new long[ids.length + 1];
+            String[] newNames = new String[names.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertion);
+            System.arraycopy(names, 0, newNames, 0, insertion);
+            newIds[insertion] = id;
+            newNames[insertion] = name;
+            System.arraycopy(ids, insertion, newIds, insertion + 1, ids.length - insertion);
+            System.arraycopy(names, insertion, newNames, insertion + 1, names.length - insertion);
+            return new Snapshot(newIds, newNames);
+        }
+
+        Snapshot without(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return this;
+            }
+            long[] newIds = new long[ids.length - 1];
+            String[] newNames = new String[names.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(names, 0, newNames, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            System.arraycopy(names, index + 1, newNames, index, names.length - index - 1);
+            return new Snapshot(newIds, newNames);
+        }
+    }
+}
@@ -11,16 +11,31 @@ import leyanessantiago.jobposting.service.dto.UserDTO;
 import leyanessantiago.jobposting.service.util.RandomUtil;
 import leyanessantiago.jobposting.web.rest.errors.*;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -33,6 +48,12 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    static final String REMOVE_NOT_ACTIVATED_USERS_LOCK = "removeNotActivatedUsers";
+
+    private static final Duration REMOVE_NOT_ACTIVATED_USERS_LOCK_DURATION = Duration.ofMinutes(10);
+
+    private static final int REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -43,11 +64,34 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final JobLockService jobLockService;
+
+    private final Counter removedNotActivatedUsers;
+
+    private final Counter failedNotActivatedUserChunks;
+
+    private final Timer removeNotActivatedUsersTimer;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager,
+            NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+            JobLockService jobLockService, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.jobLockService = jobLockService;
+        this.removedNotActivatedUsers = meterRegistry.counter("users.not.activated.removed");
+        this.failedNotActivatedUserChunks = meterRegistry.counter("users.not.activated.failed.chunks");
+        this.removeNotActivatedUsersTimer = meterRegistry.timer("users.not.activated.removal");
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -253,6 +297,11 @@ public class UserService {
         return userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER).map(UserDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllManagedUsersAfter(long id, Pageable pageable) {
+        return userRepository.findAllByLoginNotAndIdGreaterThan(Constants.ANONYMOUS_USER, id, pageable).map(UserDTO::new);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
@@ -272,16 +321,95 @@ public class UserService {
      * Not activated users should be automatically deleted after 3 days.
      * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
+     * <p>
+     * Users are deleted by chunks, in id order, each chunk with bulk statements in its own transaction, so
+     * an interrupted run leaves the remaining users for the next one. The job runs on one node of the cluster
+     * at a time, see {@link JobLockService}: the lock is extended after each chunk, and the run stops if
+     * another node took it over.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
+        if (!jobLockService.tryLock(REMOVE_NOT_ACTIVATED_USERS_LOCK, REMOVE_NOT_ACTIVATED_USERS_LOCK_DURATION)) {
+            log.debug("Not activated users are being removed by another node");
+            return;
+        }
+        try {
+            removeNotActivatedUsersTimer.record(() -> {
+                Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+                long lastId = 0L;
+                long removed = 0L;
+                List<Object[]> chunk;
+                while (!(chunk = userRepository.findNotActivatedUserKeysByCreatedDateBeforeAndIdGreaterThan(createdBefore, lastId,
+                        PageRequest.of(0, REMOVE_NOT_ACTIVATED_USERS_CHUNK_SIZE))).isEmpty()) {
+                    lastId = (Long) chunk.get(chunk.size() - 1)[0];
+                    removed += removeNotActivatedUsers(chunk);
+                    log.debug("Deleted {} not activated users, up to id {}", removed, lastId);
+                    if (!jobLockService.tryLock(REMOVE_NOT_ACTIVATED_USERS_LOCK, REMOVE_NOT_ACTIVATED_USERS_LOCK_DURATION)) {
+                        log.warn("Lost the lock on not activated users removal after id {}, leaving the remaining users for the next run",
+                            lastId);
+                        break;
+                    }
+                }
+                if (removed > 0) {
+                    log.info("Deleted {} not activated users", removed);
+                }
+            });
+        } finally {
+            jobLockService.unlock(REMOVE_NOT_ACTIVATED_USERS_LOCK);
+        }
+    }
+
+    /**
+     * Delete a chunk of not activated users, and evict them from the caches.
+     *
+     * @param chunk the id, login and email of the users.
+     * @return the number of deleted users.
+     */
+    private int removeNotActivatedUsers(List<Object[]> chunk) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Object[] row : chunk) {
+            ids.add((Long) row[0]);
+        }
+        // The users are checked again, in case they have been activated in the meantime.
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        String notActivatedUserIds = "select id from jhi_user where id in (:ids) and activated = false and activation_key is not null";
+        Integer removed;
+        try {
+            removed = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("delete from jhi_user_authority where user_id in (" + notActivatedUserIds + ")", parameters);
+                return jdbcTemplate.update("delete from jhi_user where id in (" + notActivatedUserIds + ")", parameters);
             });
+        } catch (DataAccessException e) {
+            failedNotActivatedUserChunks.increment();
+            log.warn("Could not delete not activated users with ids {} to {}", ids.get(0), ids.get(ids.size() - 1), e);
+            return 0;
+        }
+        org.hibernate.Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Object[] row : chunk) {
+            secondLevelCache.evictEntityData(User.class, (Long) row[0]);
+            secondLevelCache.evictCollectionData(User.class.getName() + ".authorities", (Long) row[0]);
+            logins.add((String) row[1]);
+            if (row[2] != null) {
+                emails.add((String) row[2]);
+            }
+        }
+        evictAll(UserRepository.USERS_BY_LOGIN_CACHE, logins);
+        evictAll(UserRepository.USERS_BY_EMAIL_CACHE, emails);
+        removedNotActivatedUsers.increment(removed == null ? 0 : removed);
+        return removed == null ? 0 : removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Set<String> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(new HashSet<>(keys));
+        } else {
+            keys.forEach(cache::evict);
+        }
     }
 
     /**
@@ -0,0 +1,68 @@
+package leyanessantiago.jobposting.service.dto;
+
+/**
+ * A DTO representing one job application pushed in bulk: a candidate, identified by email, applying for an advertisement.
+ */
+public class JobApplicationImportDTO {
+
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Long advertisementId;
+
+    public JobApplicationImportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public JobApplicationImportDTO(String email, String firstName, String lastName, Long advertisementId) {
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.advertisementId = advertisementId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public Long getAdvertisementId() {
+        return advertisementId;
+    }
+
+    public void setAdvertisementId(Long advertisementId) {
+        this.advertisementId = advertisementId;
+    }
+
+    @Override
+    public String toString() {
+        return "JobApplicationImportDTO{" +
+            "email='" + email + '\'' +
+            ", firstName='" + firstName + '\'' +
+            ", lastName='" + lastName + '\'' +
+            ", advertisementId=" + advertisementId +
+            "}";
+    }
+}
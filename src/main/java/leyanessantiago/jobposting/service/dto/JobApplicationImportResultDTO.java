@@ -0,0 +1,74 @@
+package leyanessantiago.jobposting.service.dto;
+
+/**
+ * A DTO representing the outcome of one record of a bulk job application import.
+ */
+public class JobApplicationImportResultDTO {
+
+    /**
+     * The outcome of a record.
+     */
+    public enum Status {
+        /** The application has been created. */
+        CREATED,
+        /** The record is missing its email, names or advertisement. */
+        INVALID,
+        /** The advertisement doesn't exist. */
+        ADVERTISEMENT_NOT_FOUND,
+        /** A candidate with the same email but different names already exists. */
+        NAME_MISMATCH,
+        /** The candidate has already applied for the advertisement, in the database or earlier in the same import. */
+        DUPLICATE,
+        /** The chunk of the record could not be saved, the record can be imported again. */
+        FAILED
+    }
+
+    private int index;
+
+    private Status status;
+
+    private Long candidateId;
+
+    public JobApplicationImportResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public JobApplicationImportResultDTO(int index, Status status, Long candidateId) {
+        this.index = index;
+        this.status = status;
+        this.candidateId = candidateId;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getCandidateId() {
+        return candidateId;
+    }
+
+    public void setCandidateId(Long candidateId) {
+        this.candidateId = candidateId;
+    }
+
+    @Override
+    public String toString() {
+        return "JobApplicationImportResultDTO{" +
+            "index=" + index +
+            ", status=" + status +
+            ", candidateId=" + candidateId +
+            "}";
+    }
+}
@@ -2,10 +2,15 @@ package leyanessantiago.jobposting.web.rest;
 
 import leyanessantiago.jobposting.domain.AdvertisementsByProfession;
 import leyanessantiago.jobposting.domain.Advertisement;
-import leyanessantiago.jobposting.domain.Profession;
 import leyanessantiago.jobposting.repository.AdvertisementRepository;
-import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.security.SecurityUtils;
+import leyanessantiago.jobposting.service.ActiveAdvertisementCounters;
+import leyanessantiago.jobposting.service.ActiveAdvertisementFeed;
+import leyanessantiago.jobposting.service.AdvertisementSearchIndex;
+import leyanessantiago.jobposting.service.ProfessionCounters;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
 import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,7 +19,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
@@ -25,7 +34,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -39,16 +50,31 @@ public class AdvertisementResource {
 
     private static final String ENTITY_NAME = "advertisement";
 
+    private static final int MAX_FEED_PAGE_SIZE = 2000;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final AdvertisementRepository advertisementRepository;
 
-    private final ProfessionRepository professionRepository;
+    private final ProfessionDictionary professionDictionary;
+
+    private final ActiveAdvertisementCounters activeAdvertisementCounters;
+
+    private final ActiveAdvertisementFeed activeAdvertisementFeed;
 
-    public AdvertisementResource(AdvertisementRepository advertisementRepository, ProfessionRepository professionRepository) {
+    private final AdvertisementSearchIndex advertisementSearchIndex;
+
+    public AdvertisementResource(AdvertisementRepository advertisementRepository, ProfessionDictionary professionDictionary,
+            ActiveAdvertisementCounters activeAdvertisementCounters, ActiveAdvertisementFeed activeAdvertisementFeed,
+            AdvertisementSearchIndex advertisementSearchIndex) {
         this.advertisementRepository = advertisementRepository;
-        this.professionRepository = professionRepository;
+        this.professionDictionary = professionDictionary;
+        this.activeAdvertisementCounters = activeAdvertisementCounters;
+        this.activeAdvertisementFeed = activeAdvertisementFeed;
+        this.advertisementSearchIndex = advertisementSearchIndex;
     }
 
     /**
@@ -65,6 +91,9 @@ public class AdvertisementResource {
             throw new BadRequestAlertException("A new advertisement cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Advertisement result = advertisementRepository.save(advertisement);
+        activeAdvertisementCounters.update(null, activeAdvertisementCounters.findActiveKey(result.getId()));
+        activeAdvertisementFeed.invalidate();
+        advertisementSearchIndex.index(advertisement);
         return ResponseEntity.created(new URI("/api/advertisements/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -94,7 +123,11 @@ public class AdvertisementResource {
                 }
             }
         }
+        ProfessionCounters.Key previousKey = activeAdvertisementCounters.findActiveKey(advertisement.getId());
         Advertisement result = advertisementRepository.save(advertisement);
+        activeAdvertisementCounters.update(previousKey, activeAdvertisementCounters.findActiveKey(result.getId()));
+        activeAdvertisementFeed.invalidate();
+        advertisementSearchIndex.index(advertisement);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, advertisement.getId().toString()))
             .body(result);
@@ -105,29 +138,97 @@ public class AdvertisementResource {
      *
 
      * @param pageable the pagination information.
-
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}. Offset pagination is used if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of advertisements in body.
      */
     @GetMapping("/advertisements")
-    public ResponseEntity<List<Advertisement>> getAllAdvertisements(Pageable pageable) {
+    public ResponseEntity<List<Advertisement>> getAllAdvertisements(Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after) {
         log.debug("REST request to get a page of Advertisements");
-        Page<Advertisement> page = advertisementRepository.findByUserIsCurrentUser(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        Long activeCount = advertisementRepository.countActiveByUserIsCurrentUser();
-        headers.add("X-Active-Count", activeCount.toString());
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        HttpHeaders headers;
+        List<Advertisement> advertisements;
+        if (after != null) {
+            Slice<Advertisement> slice = advertisementRepository.findByUserIsCurrentUserAndIdGreaterThan(
+                KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME), KeysetPaginationUtil.keysetPageable(pageable));
+            headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Advertisement::getId);
+            advertisements = slice.getContent();
+        } else {
+            Page<Advertisement> page = advertisementRepository.findByUserIsCurrentUser(pageable);
+            headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            advertisements = page.getContent();
+        }
+        long activeCount = SecurityUtils.getCurrentUserLogin().map(activeAdvertisementCounters::count).orElse(0L);
+        headers.add("X-Active-Count", Long.toString(activeCount));
+        return ResponseEntity.ok().headers(headers).body(advertisements);
     }
 
     /**
-     * {@code GET  /advertisements/active} : get all the active advertisements.
-
+     * {@code GET  /advertisements/active} : get the active advertisements.
+     * <p>
+     * The advertisements are sorted by id. When {@code size} is set, only one page is returned, starting after the
+     * keyset cursor {@code after}, and the next and first pages are given in the {@code Link} header, as by
+     * {@link KeysetPaginationUtil#generateKeysetHttpHeaders}. The response
+     * carries an {@code ETag} and a {@code Last-Modified} header, so unchanged feeds are answered with
+     * {@code 304 (Not Modified)}.
+     *
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}.
+     * @param size the size of the page, all the active advertisements are returned if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of active advertisements in body.
      */
     @GetMapping("/advertisements/active")
-    public ResponseEntity<List<Advertisement>> getActiveAdvertisements() {
-        log.debug("REST request to get the active Advertisements");
-        List<Advertisement> activeAdvertisements = advertisementRepository.findByActiveIsActive();
-        return ResponseEntity.ok().body(activeAdvertisements);
+    public ResponseEntity<List<Advertisement>> getActiveAdvertisements(
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get the active Advertisements after {}", after);
+        ActiveAdvertisementFeed.Snapshot snapshot = activeAdvertisementFeed.getSnapshot();
+        HttpHeaders headers;
+        List<Advertisement> activeAdvertisements;
+        if (size == null) {
+            headers = new HttpHeaders();
+            activeAdvertisements = snapshot.getAdvertisements();
+        } else {
+            int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+            activeAdvertisements = snapshot.getPage(KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME), pageSize);
+            boolean hasNext = !activeAdvertisements.isEmpty()
+                && snapshot.hasAfter(activeAdvertisements.get(activeAdvertisements.size() - 1).getId());
+            Slice<Advertisement> slice = new SliceImpl<>(activeAdvertisements, PageRequest.of(0, pageSize), hasNext);
+            headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Advertisement::getId);
+        }
+        headers.add("X-Total-Count", Integer.toString(snapshot.getAdvertisements().size()));
+        return ResponseEntity.ok()
+            .headers(headers)
+            .eTag(snapshot.getETag())
+            .lastModified(snapshot.getLastModified().toEpochMilli())
+            .cacheControl(CacheControl.noCache().cachePublic())
+            .body(activeAdvertisements);
+    }
+
+    /**
+     * {@code GET  /advertisements/search?q=:query} : search the active advertisements by title and description.
+     *
+     * @param query the text to search, all its words must match.
+     * @param professionId the id of the profession to filter on.
+     * @param size the maximum number of results.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching advertisements, best first, in body.
+     */
+    @GetMapping("/advertisements/search")
+    public ResponseEntity<List<Advertisement>> searchAdvertisements(@RequestParam("q") String query,
+            @RequestParam(required = false) Long professionId,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        log.debug("REST request to search Advertisements for query {}", query);
+        AdvertisementSearchIndex.SearchResult searchResult =
+            advertisementSearchIndex.search(query, professionId, Math.max(1, Math.min(size, MAX_SEARCH_RESULTS)));
+        ActiveAdvertisementFeed.Snapshot snapshot = activeAdvertisementFeed.getSnapshot();
+        List<Advertisement> advertisements = new ArrayList<>();
+        for (Long id : searchResult.getIds()) {
+            Advertisement advertisement = snapshot.get(id);
+            if (advertisement != null) {
+                advertisements.add(advertisement);
+            }
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Total-Count", Integer.toString(searchResult.getTotal()));
+        return ResponseEntity.ok().headers(headers).body(advertisements);
     }
 
     /**
@@ -138,16 +239,8 @@ public class AdvertisementResource {
     @GetMapping("/advertisements/active/by-profession")
     public ResponseEntity<List<AdvertisementsByProfession>> getActiveAdvertisementsByProfession() {
         log.debug("REST request to get Advertisements count by profession");
-        List<Object[]> advertisements = advertisementRepository.countActiveByProfession();
-        List<Profession> professions = professionRepository.findAll();
-        List<AdvertisementsByProfession> activeAdvertisementsByProfession = new ArrayList<>();
-        for (Object[] ads: advertisements) {
-            AdvertisementsByProfession item = new AdvertisementsByProfession();
-            item.setProfessionName(professions.stream().filter(p -> p.getId() == ads[0]).findFirst().get().getName());
-            item.setAdsCount(Integer.parseInt(ads[1].toString()));
-            activeAdvertisementsByProfession.add(item);
-        }
-        return ResponseEntity.ok().body(activeAdvertisementsByProfession);
+        Map<Long, Long> advertisements = activeAdvertisementCounters.countByProfession();
+        return ResponseEntity.ok().body(toAdvertisementsByProfession(advertisements));
     }
 
     /**
@@ -158,16 +251,10 @@ public class AdvertisementResource {
     @GetMapping("/advertisements/active/by-profession/by-user")
     public ResponseEntity<List<AdvertisementsByProfession>> getActiveAdvertisementsByProfessionByCurrentUser() {
         log.debug("REST request to get Advertisements count by profession by current user");
-        List<Object[]> advertisements = advertisementRepository.countActiveByProfessionByUserIsCurrentUser();
-        List<Profession> professions = professionRepository.findAll();
-        List<AdvertisementsByProfession> activeAdvertisementsByProfession = new ArrayList<>();
-        for (Object[] ads: advertisements) {
-            AdvertisementsByProfession item = new AdvertisementsByProfession();
-            item.setProfessionName(professions.stream().filter(p -> p.getId() == ads[0]).findFirst().get().getName());
-            item.setAdsCount(Integer.parseInt(ads[1].toString()));
-            activeAdvertisementsByProfession.add(item);
-        }
-        return ResponseEntity.ok().body(activeAdvertisementsByProfession);
+        Map<Long, Long> advertisements = SecurityUtils.getCurrentUserLogin()
+            .map(activeAdvertisementCounters::countByProfession)
+            .orElse(Collections.emptyMap());
+        return ResponseEntity.ok().body(toAdvertisementsByProfession(advertisements));
     }
 
     /**
@@ -192,7 +279,22 @@ public class AdvertisementResource {
     @DeleteMapping("/advertisements/{id}")
     public ResponseEntity<Void> deleteAdvertisement(@PathVariable Long id) {
         log.debug("REST request to delete Advertisement : {}", id);
+        ProfessionCounters.Key previousKey = activeAdvertisementCounters.findActiveKey(id);
         advertisementRepository.deleteById(id);
+        activeAdvertisementCounters.update(previousKey, null);
+        activeAdvertisementFeed.invalidate();
+        advertisementSearchIndex.remove(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
+
+    private List<AdvertisementsByProfession> toAdvertisementsByProfession(Map<Long, Long> advertisements) {
+        List<AdvertisementsByProfession> activeAdvertisementsByProfession = new ArrayList<>();
+        for (Map.Entry<Long, Long> ads: advertisements.entrySet()) {
+            AdvertisementsByProfession item = new AdvertisementsByProfession();
+            item.setProfessionName(professionDictionary.getName(ads.getKey()));
+            item.setAdsCount(ads.getValue().intValue());
+            activeAdvertisementsByProfession.add(item);
+        }
+        return activeAdvertisementsByProfession;
+    }
 }
@@ -1,21 +1,29 @@
 package leyanessantiago.jobposting.web.rest;
 
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
+import leyanessantiago.jobposting.service.AuditEventExportService;
 import leyanessantiago.jobposting.service.AuditEventService;
+import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * REST controller for getting the {@link AuditEvent}s.
@@ -26,18 +34,29 @@ public class AuditResource {
 
     private final AuditEventService auditEventService;
 
-    public AuditResource(AuditEventService auditEventService) {
+    private final AuditEventExportService auditEventExportService;
+
+    public AuditResource(AuditEventService auditEventService, AuditEventExportService auditEventExportService) {
         this.auditEventService = auditEventService;
+        this.auditEventExportService = auditEventExportService;
     }
 
     /**
      * {@code GET /audits} : get a page of {@link AuditEvent}s.
      *
      * @param pageable the pagination information.
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}. Offset pagination is used if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of {@link AuditEvent}s in body.
      */
     @GetMapping
-    public ResponseEntity<List<AuditEvent>> getAll(Pageable pageable) {
+    public ResponseEntity<List<AuditEvent>> getAll(Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after) {
+        if (after != null) {
+            Slice<PersistentAuditEvent> slice = auditEventService.findAllAfter(
+                KeysetPaginationUtil.decodeCursor(after, "audit"), KeysetPaginationUtil.keysetPageable(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, PersistentAuditEvent::getId);
+            return new ResponseEntity<>(slice.map(auditEventService::toAuditEvent).getContent(), headers, HttpStatus.OK);
+        }
         Page<AuditEvent> page = auditEventService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
@@ -65,6 +84,42 @@ public class AuditResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET  /audits/export} : export the {@link AuditEvent}s between the {@code fromDate} and {@code toDate}.
+     * <p>
+     * The events are written to the response as they are read from the database, sorted by date.
+     *
+     * @param fromDate the start of the time period of {@link AuditEvent} to export.
+     * @param toDate the end of the time period of {@link AuditEvent} to export.
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @param response the response to write the events to.
+     * @throws IOException if the response can't be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/export")
+    public void export(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        HttpServletResponse response) throws IOException {
+
+        AuditEventExportService.Format exportFormat;
+        try {
+            exportFormat = AuditEventExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown export format " + format, "audit", "invalidformat");
+        }
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"audits-" + fromDate + "-" + toDate + "." + exportFormat.getExtension() + "\"");
+        auditEventExportService.exportByDates(
+            fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+            toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant(),
+            exportFormat,
+            response.getOutputStream());
+        response.flushBuffer();
+    }
+
     /**
      * {@code GET  /audits/:id} : get an {@link AuditEvent} by id.
      *
@@ -2,8 +2,16 @@ package leyanessantiago.jobposting.web.rest;
 
 import leyanessantiago.jobposting.domain.*;
 import leyanessantiago.jobposting.repository.CandidateRepository;
-import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.security.SecurityUtils;
+import leyanessantiago.jobposting.service.JobApplicationCounters;
+import leyanessantiago.jobposting.service.JobApplicationImportService;
+import leyanessantiago.jobposting.service.JobApplicationService;
+import leyanessantiago.jobposting.service.ProfessionCounters;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportDTO;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportResultDTO;
 import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -13,6 +21,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +33,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * REST controller for managing {@link leyanessantiago.jobposting.domain.Candidate}.
@@ -38,16 +49,29 @@ public class CandidateResource {
 
     private static final String ENTITY_NAME = "candidate";
 
+    private static final int MAX_IMPORT_SIZE = 100_000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CandidateRepository candidateRepository;
 
-    private final ProfessionRepository professionRepository;
+    private final ProfessionDictionary professionDictionary;
+
+    private final JobApplicationCounters jobApplicationCounters;
+
+    private final JobApplicationService jobApplicationService;
+
+    private final JobApplicationImportService jobApplicationImportService;
 
-    public CandidateResource(CandidateRepository candidateRepository, ProfessionRepository professionRepository) {
+    public CandidateResource(CandidateRepository candidateRepository, ProfessionDictionary professionDictionary,
+            JobApplicationCounters jobApplicationCounters, JobApplicationService jobApplicationService,
+            JobApplicationImportService jobApplicationImportService) {
         this.candidateRepository = candidateRepository;
-        this.professionRepository = professionRepository;
+        this.professionDictionary = professionDictionary;
+        this.jobApplicationCounters = jobApplicationCounters;
+        this.jobApplicationService = jobApplicationService;
+        this.jobApplicationImportService = jobApplicationImportService;
     }
 
     /**
@@ -63,32 +87,28 @@ public class CandidateResource {
         if (candidate.getId() != null) {
             throw new BadRequestAlertException("A new candidate cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Candidate result;
-        Candidate existentCandidate = candidateRepository.findByEmailWithEagerRelationships(candidate.getEmail());
-        if (existentCandidate != null) {
-            Candidate candidateToSave = existentCandidate;
-            Boolean isChangingNames = !candidate.getFirstName().equals(candidateToSave.getFirstName())
-                || !candidate.getLastName().equals(candidateToSave.getLastName());
-            if (isChangingNames) {
-                throw new BadRequestAlertException("A candidate with the same email already exists, If you have any question please contact with the admin", "Candidate", "email");
-            }
-            Advertisement advertisement = candidate.getAdvertisements().stream().findFirst().get();
-            Boolean hasThisAdvertisement = existentCandidate.getAdvertisements().stream().anyMatch(ads -> ads.getId() == advertisement.getId());
-            if (hasThisAdvertisement) {
-                throw new BadRequestAlertException("You can only apply once for each advertisement", "Job Application", "jobApplication");
-            }
-            Set<Advertisement> adsToSave = candidateToSave.getAdvertisements();
-            adsToSave.addAll(candidate.getAdvertisements());
-            candidateToSave.setAdvertisements(adsToSave);
-            result = candidateRepository.save(candidateToSave);
-        } else {
-            result = candidateRepository.save(candidate);
-        }
+        Candidate result = jobApplicationService.createCandidate(candidate);
         return ResponseEntity.created(new URI("/api/candidates/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /candidates/bulk} : Import job applications in bulk.
+     *
+     * @param applications the applications to import, creating the candidates that don't exist yet.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the outcome of each application in body,
+     * or with status {@code 400 (Bad Request)} if there are too many applications.
+     */
+    @PostMapping("/candidates/bulk")
+    public ResponseEntity<List<JobApplicationImportResultDTO>> importJobApplications(@RequestBody List<JobApplicationImportDTO> applications) {
+        log.debug("REST request to import {} job applications", applications.size());
+        if (applications.size() > MAX_IMPORT_SIZE) {
+            throw new BadRequestAlertException("An import cannot have more than " + MAX_IMPORT_SIZE + " applications", ENTITY_NAME, "importtoolarge");
+        }
+        return ResponseEntity.ok().body(jobApplicationImportService.importApplications(applications));
+    }
+
     /**
      * {@code PUT  /candidates} : Updates an existing candidate.
      *
@@ -104,7 +124,9 @@ public class CandidateResource {
         if (candidate.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
+        List<ProfessionCounters.Key> previousKeys = jobApplicationCounters.findKeysByCandidateId(candidate.getId());
         Candidate result = candidateRepository.save(candidate);
+        jobApplicationCounters.update(previousKeys, jobApplicationCounters.findKeysByCandidateId(result.getId()));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, candidate.getId().toString()))
             .body(result);
@@ -116,11 +138,25 @@ public class CandidateResource {
 
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}. Offset pagination is used if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of candidates in body.
      */
     @GetMapping("/candidates")
-    public ResponseEntity<List<Candidate>> getAllCandidates(Pageable pageable, @RequestParam(required = false, defaultValue = "false") boolean eagerload) {
+    public ResponseEntity<List<Candidate>> getAllCandidates(Pageable pageable, @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after) {
         log.debug("REST request to get a page of Candidates");
+        if (after != null) {
+            Pageable keysetPageable = KeysetPaginationUtil.keysetPageable(pageable);
+            Slice<Candidate> slice = candidateRepository.findByIdGreaterThan(KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME), keysetPageable);
+            if (eagerload && slice.hasContent()) {
+                // Fetch-joining a collection can't be limited in SQL, so the relationships are loaded for the ids of the slice.
+                List<Long> ids = new ArrayList<>();
+                slice.forEach(c -> ids.add(c.getId()));
+                slice = new SliceImpl<>(candidateRepository.findAllWithEagerRelationshipsByIdIn(ids), keysetPageable, slice.hasNext());
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Candidate::getId);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<Candidate> page;
         if (eagerload) {
             page = candidateRepository.findAllWithEagerRelationships(pageable);
@@ -139,16 +175,8 @@ public class CandidateResource {
     @GetMapping("/candidates/by-profession")
     public ResponseEntity<List<CandidatesByProfession>> getCandidatesByProfession() {
         log.debug("REST request to get Candidates count by profession");
-        List<Object[]> candidates = candidateRepository.countByProfession();
-        List<Profession> professions = professionRepository.findAll();
-        List<CandidatesByProfession> candidatesByProfession = new ArrayList<>();
-        for (Object[] ads: candidates) {
-            CandidatesByProfession item = new CandidatesByProfession();
-            item.setProfessionName(professions.stream().filter(p -> p.getId() == ads[0]).findFirst().get().getName());
-            item.setCandidatesCount(Integer.parseInt(ads[1].toString()));
-            candidatesByProfession.add(item);
-        }
-        return ResponseEntity.ok().body(candidatesByProfession);
+        Map<Long, Long> candidates = jobApplicationCounters.countByProfession();
+        return ResponseEntity.ok().body(toCandidatesByProfession(candidates));
     }
 
     /**
@@ -159,16 +187,10 @@ public class CandidateResource {
     @GetMapping("/candidates/by-profession/by-user")
     public ResponseEntity<List<CandidatesByProfession>> getCandidatesByProfessionByCurrentUser() {
         log.debug("REST request to get Candidates count by profession by current user");
-        List<Object[]> candidates = candidateRepository.countByProfessionByUserIsCurrentUser();
-        List<Profession> professions = professionRepository.findAll();
-        List<CandidatesByProfession> candidatesByProfession = new ArrayList<>();
-        for (Object[] ads: candidates) {
-            CandidatesByProfession item = new CandidatesByProfession();
-            item.setProfessionName(professions.stream().filter(p -> p.getId() == ads[0]).findFirst().get().getName());
-            item.setCandidatesCount(Integer.parseInt(ads[1].toString()));
-            candidatesByProfession.add(item);
-        }
-        return ResponseEntity.ok().body(candidatesByProfession);
+        Map<Long, Long> candidates = SecurityUtils.getCurrentUserLogin()
+            .map(jobApplicationCounters::countByProfession)
+            .orElse(Collections.emptyMap());
+        return ResponseEntity.ok().body(toCandidatesByProfession(candidates));
     }
 
     /**
@@ -193,7 +215,20 @@ public class CandidateResource {
     @DeleteMapping("/candidates/{id}")
     public ResponseEntity<Void> deleteCandidate(@PathVariable Long id) {
         log.debug("REST request to delete Candidate : {}", id);
+        List<ProfessionCounters.Key> previousKeys = jobApplicationCounters.findKeysByCandidateId(id);
         candidateRepository.deleteById(id);
+        jobApplicationCounters.update(previousKeys, Collections.emptyList());
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
+
+    private List<CandidatesByProfession> toCandidatesByProfession(Map<Long, Long> candidates) {
+        List<CandidatesByProfession> candidatesByProfession = new ArrayList<>();
+        for (Map.Entry<Long, Long> ads: candidates.entrySet()) {
+            CandidatesByProfession item = new CandidatesByProfession();
+            item.setProfessionName(professionDictionary.getName(ads.getKey()));
+            item.setCandidatesCount(ads.getValue().intValue());
+            candidatesByProfession.add(item);
+        }
+        return candidatesByProfession;
+    }
 }
@@ -2,7 +2,9 @@ package leyanessantiago.jobposting.web.rest;
 
 import leyanessantiago.jobposting.domain.Profession;
 import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
 import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -12,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -41,8 +44,11 @@ public class ProfessionResource {
 
     private final ProfessionRepository professionRepository;
 
-    public ProfessionResource(ProfessionRepository professionRepository) {
+    private final ProfessionDictionary professionDictionary;
+
+    public ProfessionResource(ProfessionRepository professionRepository, ProfessionDictionary professionDictionary) {
         this.professionRepository = professionRepository;
+        this.professionDictionary = professionDictionary;
     }
 
     /**
@@ -59,6 +65,7 @@ public class ProfessionResource {
             throw new BadRequestAlertException("A new profession cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Profession result = professionRepository.save(profession);
+        professionDictionary.put(result.getId(), result.getName());
         return ResponseEntity.created(new URI("/api/professions/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -80,6 +87,7 @@ public class ProfessionResource {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         Profession result = professionRepository.save(profession);
+        professionDictionary.put(result.getId(), result.getName());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, profession.getId().toString()))
             .body(result);
@@ -90,12 +98,19 @@ public class ProfessionResource {
      *
 
      * @param pageable the pagination information.
-
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}. Offset pagination is used if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of professions in body.
      */
     @GetMapping("/professions")
-    public ResponseEntity<List<Profession>> getAllProfessions(Pageable pageable) {
+    public ResponseEntity<List<Profession>> getAllProfessions(Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after) {
         log.debug("REST request to get a page of Professions");
+        if (after != null) {
+            Slice<Profession> slice = professionRepository.findByIdGreaterThan(
+                KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME), KeysetPaginationUtil.keysetPageable(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, Profession::getId);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<Profession> page = professionRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -124,6 +139,7 @@ public class ProfessionResource {
     public ResponseEntity<Void> deleteProfession(@PathVariable Long id) {
         log.debug("REST request to delete Profession : {}", id);
         professionRepository.deleteById(id);
+        professionDictionary.remove(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 }
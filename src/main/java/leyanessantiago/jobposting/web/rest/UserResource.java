@@ -10,6 +10,7 @@ import leyanessantiago.jobposting.service.dto.UserDTO;
 import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
 import leyanessantiago.jobposting.web.rest.errors.EmailAlreadyUsedException;
 import leyanessantiago.jobposting.web.rest.errors.LoginAlreadyUsedException;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -20,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -141,10 +143,18 @@ public class UserResource {
      * {@code GET /users} : get all users.
      *
      * @param pageable the pagination information.
+     * @param after the keyset cursor, see {@link KeysetPaginationUtil}. Offset pagination is used if not set.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers(Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllUsers(Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after) {
+        if (after != null) {
+            final Slice<UserDTO> slice = userService.getAllManagedUsersAfter(
+                KeysetPaginationUtil.decodeCursor(after, "userManagement"), KeysetPaginationUtil.keysetPageable(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, UserDTO::getId);
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
         final Page<UserDTO> page = userService.getAllManagedUsers(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
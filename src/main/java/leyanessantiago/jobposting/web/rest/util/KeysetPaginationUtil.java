@@ -0,0 +1,107 @@
+package leyanessantiago.jobposting.web.rest.util;
+
+import leyanessantiago.jobposting.web.rest.errors.BadRequestAlertException;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * In keyset mode, a list endpoint is called with {@code ?after=<cursor>&size=<size>}: it returns the entities whose
+ * id is greater than the one encoded in the cursor, sorted by id, and gives the cursor of the next page in the
+ * {@code Link} header. Unlike offset pagination, deep pages don't scan the skipped rows and no {@code count(*)} query
+ * is needed. An empty {@code after} parameter requests the first page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor the cursor, as given in the {@code after} parameter.
+     * @param entityName the name of the entity being paginated, used in the error message.
+     * @return the id encoded in the cursor, or {@link Long#MIN_VALUE} for the first page.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static long decodeCursor(String cursor, String entityName) {
+        if (!StringUtils.hasText(cursor)) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Encode a cursor.
+     *
+     * @param id the id of the last entity of a page.
+     * @return the cursor of the next page.
+     */
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Build the pagination information of a keyset page: the first page of the requested size, sorted by id.
+     *
+     * @param pageable the requested pagination information.
+     * @return the pagination information to use for the keyset query.
+     */
+    public static Pageable keysetPageable(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize(), Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Generate the pagination headers of a keyset page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the page of entities, sorted by id.
+     * @param idExtractor the function giving the id of an entity.
+     * @param <T> the type of the entities.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> idExtractor) {
+        HttpHeaders headers = new HttpHeaders();
+        StringBuilder link = new StringBuilder();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            long lastId = idExtractor.apply(content.get(content.size() - 1));
+            link.append(prepareLink(uriBuilder, encodeCursor(lastId), slice.getSize(), "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, "", slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, int size, String relType) {
+        String uri = uriBuilder.cloneBuilder()
+            .replaceQueryParam("page")
+            .replaceQueryParam("sort")
+            .replaceQueryParam(AFTER_PARAMETER, cursor)
+            .replaceQueryParam("size", size)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return String.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the Spring MVC REST controllers.
+ */
+package leyanessantiago.jobposting.web.rest.util;
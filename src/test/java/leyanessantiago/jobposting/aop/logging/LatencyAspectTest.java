@@ -0,0 +1,158 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link LatencyAspect} and {@link SlowestCalls}.
+ */
+public class LatencyAspectTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private MeterRegistry meterRegistry;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+    }
+
+    @Test
+    public void testLatencyIsRecordedPerMethod() {
+        LatencyAspect latencyAspect = new LatencyAspect(beanFactory.getBeanProvider(MeterRegistry.class), 1, 2, WINDOW);
+        TestComponent component = createProxy(latencyAspect);
+
+        component.login("john", "secret");
+        component.login("jane", "secret");
+
+        assertThat(meterRegistry.get("method.latency").tag("class", "TestComponent").tag("method", "login")
+            .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInheritedMethodsAreRecordedPerTargetClass() {
+        LatencyAspect latencyAspect = new LatencyAspect(beanFactory.getBeanProvider(MeterRegistry.class), 1, 2, WINDOW);
+        ProxyFactory proxyFactory = new ProxyFactory(new OtherTestComponent());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(latencyAspect);
+        TestComponent component = (TestComponent) proxyFactory.getProxy();
+
+        component.login("john", "secret");
+
+        assertThat(meterRegistry.get("method.latency").tag("class", "OtherTestComponent").tag("method", "login")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("method.latency").tag("class", "TestComponent").timer()).isNull();
+    }
+
+    @Test
+    public void testRepositoryMethodsAreRecordedPerRepositoryInterface() {
+        LatencyAspect latencyAspect = new LatencyAspect(beanFactory.getBeanProvider(MeterRegistry.class), 1, 2, WINDOW);
+        // Spring Data proxies the repository interface, the advisor is applied on that proxy
+        ProxyFactory repositoryFactory = new ProxyFactory(new TestRepositoryImpl());
+        repositoryFactory.setInterfaces(TestRepository.class);
+        ProxyFactory proxyFactory = new ProxyFactory(repositoryFactory.getProxy());
+        proxyFactory.setInterfaces(TestRepository.class);
+        proxyFactory.addAdvice(latencyAspect);
+        TestRepository repository = (TestRepository) proxyFactory.getProxy();
+
+        repository.count();
+
+        assertThat(meterRegistry.get("method.latency").tag("class", "TestRepository").tag("method", "count")
+            .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSlowestCallsAreKeptWithRedactedArguments() {
+        LatencyAspect latencyAspect = new LatencyAspect(beanFactory.getBeanProvider(MeterRegistry.class), 1000, 2, WINDOW);
+        TestComponent component = createProxy(latencyAspect);
+
+        component.login("john", "secret");
+        component.sleep(20);
+        component.sleep(40);
+
+        List<SlowestCalls.SlowCall> slowestCalls = latencyAspect.getSlowestCalls().getCalls();
+        assertThat(slowestCalls).hasSize(2);
+        assertThat(slowestCalls.get(0).getMethod()).isEqualTo("TestComponent.sleep");
+        assertThat(slowestCalls.get(0).getArguments()).isEqualTo("[40]");
+        assertThat(slowestCalls.get(1).getArguments()).isEqualTo("[20]");
+    }
+
+    @Test
+    public void testSlowestCallsAreKeptPerWindow() throws Exception {
+        SlowestCalls slowestCalls = new SlowestCalls(1, WINDOW);
+        Method method = TestComponent.class.getMethod("sleep", long.class);
+        long now = System.nanoTime();
+
+        assertThat(slowestCalls.offer(TestComponent.class, method, new Object[]{1000L}, 1000L, now)).isNotNull();
+        assertThat(slowestCalls.isCandidate(10L, now)).isFalse();
+        long nextWindow = now + WINDOW.toNanos();
+        assertThat(slowestCalls.isCandidate(10L, nextWindow)).isTrue();
+        assertThat(slowestCalls.offer(TestComponent.class, method, new Object[]{10L}, 10L, nextWindow)).isNotNull();
+
+        assertThat(slowestCalls.getCalls()).extracting(SlowestCalls.SlowCall::getArguments).containsExactly("[10]");
+        assertThat(slowestCalls.getPreviousCalls()).extracting(SlowestCalls.SlowCall::getArguments).containsExactly("[1000]");
+    }
+
+    @Test
+    public void testArgumentsAreRedacted() {
+        assertThat(SlowestCalls.redact(new Object[]{"secret", 42L, null, Arrays.asList(1, 2), new Object()}))
+            .isEqualTo("[String(6), 42, null, ArrayList(2), Object]");
+    }
+
+    private TestComponent createProxy(LatencyAspect latencyAspect) {
+        ProxyFactory proxyFactory = new ProxyFactory(new TestComponent());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(latencyAspect);
+        return (TestComponent) proxyFactory.getProxy();
+    }
+
+    public static class TestComponent {
+
+        public boolean login(String login, String password) {
+            return login.equals(password);
+        }
+
+        public void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class OtherTestComponent extends TestComponent {
+    }
+
+    public interface TestCrudRepository<T> extends Repository<T, Long> {
+
+        long count();
+    }
+
+    public interface TestRepository extends TestCrudRepository<String> {
+    }
+
+    public static class TestRepositoryImpl implements TestRepository {
+
+        @Override
+        public long count() {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package leyanessantiago.jobposting.aop.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link LoggingAspect} pointcut and the {@link LoggingAspectSwitch}.
+ */
+public class LoggingAspectSwitchTest {
+
+    private Advisor advisor;
+
+    private Advisor exceptionAdvisor;
+
+    private LoggingAspectSwitch loggingAspectSwitch;
+
+    @BeforeEach
+    public void setup() {
+        Pointcut pointcut = LoggingAspect.pointcut(Collections.singletonList("leyanessantiago.jobposting.aop.logging"));
+        advisor = new DefaultPointcutAdvisor(pointcut, new LoggingAspect(new MockEnvironment()));
+        exceptionAdvisor = new DefaultPointcutAdvisor(pointcut, new LoggingAspect(new MockEnvironment(), false));
+        loggingAspectSwitch = new LoggingAspectSwitch(advisor, exceptionAdvisor);
+    }
+
+    @Test
+    public void testPointcutMatchesPackagesAndAnnotatedMethods() {
+        assertThat(AopUtils.canApply(advisor, TestService.class)).isTrue();
+        assertThat(AopUtils.canApply(advisor, TestComponent.class)).isFalse();
+        assertThat(AopUtils.canApply(LoggingAspect.pointcut(Collections.emptyList()), TestService.class)).isFalse();
+        assertThat(AopUtils.canApply(LoggingAspect.pointcut(Collections.emptyList()), TestAnnotatedComponent.class)).isTrue();
+    }
+
+    @Test
+    public void testAdvisorIsReplacedWhenSwitchedOffAndPutBackWhenSwitchedOn() {
+        Advised proxy = createProxy();
+
+        loggingAspectSwitch.setEnabled(false);
+
+        assertThat(proxy.indexOf(advisor)).isEqualTo(-1);
+        assertThat(proxy.indexOf(exceptionAdvisor)).isEqualTo(0);
+        assertThat(((TestService) proxy).echo("value")).isEqualTo("value");
+
+        loggingAspectSwitch.setEnabled(true);
+
+        assertThat(proxy.indexOf(advisor)).isEqualTo(0);
+        assertThat(proxy.indexOf(exceptionAdvisor)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testProxyCreatedWhileSwitchedOffHasTheExceptionAdvisor() {
+        loggingAspectSwitch.setEnabled(false);
+
+        Advised proxy = createProxy();
+
+        assertThat(proxy.indexOf(advisor)).isEqualTo(-1);
+        assertThat(proxy.indexOf(exceptionAdvisor)).isEqualTo(0);
+    }
+
+    private Advised createProxy() {
+        ProxyFactory proxyFactory = new ProxyFactory(new TestService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return (Advised) loggingAspectSwitch.postProcessAfterInitialization(proxyFactory.getProxy(), "testService");
+    }
+
+    /**
+     * Not a static class, so it isn't picked up by the component scan of the integration tests.
+     */
+    @Service
+    public class TestService {
+
+        public String echo(String value) {
+            return value;
+        }
+    }
+
+    public class TestComponent {
+
+        public String echo(String value) {
+            return value;
+        }
+    }
+
+    public class TestAnnotatedComponent {
+
+        @Loggable
+        public String echo(String value) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package leyanessantiago.jobposting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link AsyncExecutorFactoryBean}.
+ */
+public class AsyncExecutorFactoryBeanTest {
+
+    private static final String NAME = "testExecutor";
+
+    private ApplicationProperties.AsyncExecutor properties;
+
+    private MeterRegistry meterRegistry;
+
+    private AsyncExecutorFactoryBean factoryBean;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.AsyncExecutor();
+        properties.setCoreSize(1);
+        properties.setMaxSize(1);
+        properties.setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        release.countDown();
+        factoryBean.destroy();
+    }
+
+    @Test
+    public void testTasksAreRejectedWhenTheQueueIsFull() throws Exception {
+        ExecutorService executor = createExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> { });
+
+        assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("executor.rejected").tag("name", NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.active").tag("name", NAME).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCallerRunsTasksWhenTheQueueIsFull() throws Exception {
+        properties.setRejectionPolicy(ApplicationProperties.AsyncExecutor.RejectionPolicy.CALLER_RUNS);
+        ExecutorService executor = createExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> { });
+
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        executor.execute(() -> thread.set(Thread.currentThread()));
+
+        assertThat(thread.get()).isEqualTo(Thread.currentThread());
+        assertThat(meterRegistry.get("executor.rejected").tag("name", NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTaskLatencyIsRecorded() throws Exception {
+        ExecutorService executor = createExecutor();
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        executor.submit(() -> threadName.set(Thread.currentThread().getName())).get(5, TimeUnit.SECONDS);
+
+        assertThat(threadName.get()).startsWith(NAME + "-");
+        assertThat(meterRegistry.get("executor").tag("name", NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testVirtualThreadExecutorRunsTasks() throws Exception {
+        properties.setVirtualThreads(true);
+        ExecutorService executor = createExecutor();
+
+        assertThat(executor.submit(() -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(meterRegistry.get("executor").tag("name", NAME).timer().count()).isEqualTo(1);
+    }
+
+    private ExecutorService createExecutor() {
+        factoryBean = new AsyncExecutorFactoryBean(NAME, properties, meterRegistry);
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package leyanessantiago.jobposting.config;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the cache regions of {@link CacheConfiguration}.
+ */
+public class CacheConfigurationTest {
+
+    private CacheConfiguration cacheConfiguration;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        cacheConfiguration = new CacheConfiguration(jHipsterProperties, new ApplicationProperties());
+        CachingProvider cachingProvider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        cacheManager = cachingProvider.getCacheManager(URI.create("urn:cache-configuration-test"), getClass().getClassLoader());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    public void testRegionWithoutConfigurationUsesTheDefaults() {
+        org.ehcache.config.CacheConfiguration<?, ?> configuration = unwrap(cacheConfiguration.createConfiguration(null, getClass().getClassLoader()));
+
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).doesNotContain(ResourceType.Core.OFFHEAP);
+    }
+
+    @Test
+    public void testRegionWithHeapSizeAndOffHeapTier() {
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion();
+        region.setHeapSize(DataSize.ofMegabytes(1));
+        region.setOffHeapSize(DataSize.ofMegabytes(2));
+        region.setTimeToIdleSeconds(60L);
+
+        org.ehcache.config.CacheConfiguration<?, ?> configuration = unwrap(cacheConfiguration.createConfiguration(region, getClass().getClassLoader()));
+
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(MemoryUnit.B);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(1024 * 1024);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(2 * 1024 * 1024);
+    }
+
+    @Test
+    public void testOffHeapRegionStoresSerializableValues() {
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion();
+        region.setMaxEntries(1L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        Cache<Object, Object> cache = cacheManager.createCache("offHeapRegion", cacheConfiguration.createConfiguration(region, getClass().getClassLoader()));
+
+        cache.put("first", "value1");
+        cache.put("second", "value2");
+
+        assertThat(cache.get("first")).isEqualTo("value1");
+        assertThat(cache.get("second")).isEqualTo("value2");
+    }
+
+    private static org.ehcache.config.CacheConfiguration<?, ?> unwrap(javax.cache.configuration.Configuration<Object, Object> configuration) {
+        @SuppressWarnings("unchecked")
+        Eh107Configuration<Object, Object> eh107Configuration = (Eh107Configuration<Object, Object>) configuration;
+        return eh107Configuration.unwrap(org.ehcache.config.CacheConfiguration.class);
+    }
+}
@@ -0,0 +1,114 @@
+package leyanessantiago.jobposting.config.audit;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
+import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link AuditEventWriter}.
+ */
+public class AuditEventWriterTest {
+
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private List<PersistentAuditEvent> saved;
+
+    @BeforeEach
+    public void setup() {
+        persistenceAuditEventRepository = mock(PersistenceAuditEventRepository.class);
+        saved = Collections.synchronizedList(new ArrayList<>());
+        when(persistenceAuditEventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PersistentAuditEvent> events = invocation.getArgument(0);
+            saved.addAll(events);
+            return events;
+        });
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testPendingEventsAreWrittenOnShutdown() throws Exception {
+        applicationProperties.getAuditWriter().setBatchSize(10);
+        applicationProperties.getAuditWriter().setFlushIntervalMs(10_000);
+        AuditEventWriter auditEventWriter = createWriter();
+        auditEventWriter.afterPropertiesSet();
+
+        for (int i = 0; i < 25; i++) {
+            auditEventWriter.submit(createEvent(i));
+        }
+        auditEventWriter.destroy();
+
+        assertThat(saved).hasSize(25);
+        assertThat(meterRegistry.get("audit.writer.events").tag("result", "written").counter().count()).isEqualTo(25);
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(persistenceAuditEventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<PersistentAuditEvent> events = invocation.getArgument(0);
+            saved.addAll(events);
+            return events;
+        });
+        applicationProperties.getAuditWriter().setQueueCapacity(2);
+        applicationProperties.getAuditWriter().setFlushIntervalMs(0);
+        AuditEventWriter auditEventWriter = createWriter();
+        auditEventWriter.afterPropertiesSet();
+
+        for (int i = 0; i < 4; i++) {
+            auditEventWriter.submit(createEvent(i));
+        }
+        double dropped = meterRegistry.get("audit.writer.events").tag("result", "dropped").counter().count();
+        release.countDown();
+        auditEventWriter.destroy();
+
+        assertThat(dropped).isGreaterThanOrEqualTo(1);
+        assertThat(saved.size() + dropped).isEqualTo(4);
+    }
+
+    @Test
+    public void testEventsAreWrittenSynchronouslyWhenDisabled() {
+        applicationProperties.getAuditWriter().setEnabled(false);
+        AuditEventWriter auditEventWriter = createWriter();
+        auditEventWriter.afterPropertiesSet();
+
+        auditEventWriter.submit(createEvent(0));
+
+        assertThat(saved).hasSize(1);
+    }
+
+    private AuditEventWriter createWriter() {
+        return new AuditEventWriter(persistenceAuditEventRepository, mock(PlatformTransactionManager.class),
+            applicationProperties, meterRegistry);
+    }
+
+    private static PersistentAuditEvent createEvent(int i) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal("test-user-" + i);
+        event.setAuditEventType("test-type");
+        event.setAuditEventDate(Instant.now());
+        return event;
+    }
+}
@@ -0,0 +1,211 @@
+package leyanessantiago.jobposting.config.cache;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link CacheInvalidationBus}, with two nodes connected by a loopback transport.
+ */
+public class CacheInvalidationBusTest {
+
+    private static final String CACHE_NAME = "test";
+
+    private static final String UPDATE_TIMESTAMPS_CACHE_NAME = "timestamps";
+
+    private static final String QUERY_CACHE_NAME = "query";
+
+    private static final long TIMESTAMP_B = 42L;
+
+    private CacheManager cacheManagerA;
+
+    private CacheManager cacheManagerB;
+
+    private CacheInvalidationBus busA;
+
+    private CacheInvalidationBus busB;
+
+    private MeterRegistry meterRegistryA;
+
+    private MeterRegistry meterRegistryB;
+
+    @BeforeEach
+    public void setup() {
+        CachingProvider cachingProvider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        cacheManagerA = cachingProvider.getCacheManager(URI.create("urn:cache-invalidation-a"), getClass().getClassLoader());
+        cacheManagerB = cachingProvider.getCacheManager(URI.create("urn:cache-invalidation-b"), getClass().getClassLoader());
+        for (String cacheName : Arrays.asList(CACHE_NAME, UPDATE_TIMESTAMPS_CACHE_NAME, QUERY_CACHE_NAME)) {
+            cacheManagerA.createCache(cacheName, new MutableConfiguration<>());
+            cacheManagerB.createCache(cacheName, new MutableConfiguration<>());
+        }
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getInvalidation().setFlushIntervalMs(10);
+        LoopbackCacheInvalidationTransport.Hub hub = new LoopbackCacheInvalidationTransport.Hub();
+        meterRegistryA = new SimpleMeterRegistry();
+        meterRegistryB = new SimpleMeterRegistry();
+        busA = new CacheInvalidationBus(cacheManagerA, hub.connect(), applicationProperties, meterRegistryA);
+        busB = new CacheInvalidationBus(cacheManagerB, hub.connect(), applicationProperties, meterRegistryB);
+        busA.setQueryCaches(UPDATE_TIMESTAMPS_CACHE_NAME, Collections.singleton(QUERY_CACHE_NAME), () -> 1L);
+        busB.setQueryCaches(UPDATE_TIMESTAMPS_CACHE_NAME, Collections.singleton(QUERY_CACHE_NAME), () -> TIMESTAMP_B);
+        busA.afterPropertiesSet();
+        busB.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        busA.destroy();
+        busB.destroy();
+        cacheManagerA.close();
+        cacheManagerB.close();
+    }
+
+    @Test
+    public void testRemovedKeyIsEvictedOnTheOtherNode() throws Exception {
+        cacheA().put("key", "value");
+        cacheB().put("key", "value");
+        cacheB().put("other", "value");
+
+        cacheA().remove("key");
+
+        await(() -> !cacheB().containsKey("key"));
+        assertThat(cacheB().get("other")).isEqualTo("value");
+    }
+
+    @Test
+    public void testUpdatedKeyIsEvictedOnTheOtherNode() throws Exception {
+        cacheA().put("key", "value");
+        cacheB().put("key", "value");
+
+        cacheA().put("key", "new value");
+
+        await(() -> !cacheB().containsKey("key"));
+        assertThat(cacheA().get("key")).isEqualTo("new value");
+    }
+
+    @Test
+    public void testAppliedEvictionsAreNotSentBack() throws Exception {
+        cacheA().put("key", "value");
+        cacheB().put("key", "value");
+        cacheA().remove("key");
+        await(() -> !cacheB().containsKey("key"));
+
+        cacheA().put("key", "reloaded");
+        busA.destroy();
+        busB.destroy();
+
+        assertThat(cacheA().get("key")).isEqualTo("reloaded");
+        assertThat(meterRegistryB.get("cache.invalidation.invalidations").tag("result", "sent").counter().count()).isZero();
+    }
+
+    @Test
+    public void testRegionEvictionClearsTheOtherNode() throws Exception {
+        cacheB().put("first", "value");
+        cacheB().put("second", "value");
+
+        busA.publishRegionEviction(CACHE_NAME);
+
+        await(() -> !cacheB().iterator().hasNext());
+    }
+
+    @Test
+    public void testHibernateRegionEvictionClearsTheOtherNode() throws Exception {
+        CacheManager hibernateCacheManagerA = new RegionEvictionCacheManager(cacheManagerA, busA::publishRegionEviction);
+        cacheA().put("first", "value");
+        cacheB().put("first", "value");
+        cacheB().put("second", "value");
+
+        // As done by Hibernate for Cache.evictAll() and the regions of bulk queries.
+        new JCacheAccessImpl(hibernateCacheManagerA.getCache(CACHE_NAME)).evictData();
+
+        assertThat(cacheA().iterator().hasNext()).isFalse();
+        await(() -> !cacheB().iterator().hasNext());
+    }
+
+    @Test
+    public void testUpdateTimestampIsSetToTheTimeOfTheOtherNode() throws Exception {
+        cacheManagerA.getCache(UPDATE_TIMESTAMPS_CACHE_NAME).put("advertisement", 7L);
+
+        await(() -> Long.valueOf(TIMESTAMP_B).equals(cacheManagerB.getCache(UPDATE_TIMESTAMPS_CACHE_NAME).get("advertisement")));
+    }
+
+    @Test
+    public void testQueryResultsAreNotBroadcast() throws Exception {
+        Cache<Object, Object> queryCacheA = cacheManagerA.getCache(QUERY_CACHE_NAME);
+        queryCacheA.put("query", "result");
+        cacheManagerB.getCache(QUERY_CACHE_NAME).put("query", "result");
+        cacheB().put("key", "value");
+
+        queryCacheA.put("query", "new result");
+        queryCacheA.remove("query");
+        cacheA().remove("key");
+
+        // The invalidations are sent in order.
+        await(() -> !cacheB().containsKey("key"));
+        assertThat(cacheManagerB.getCache(QUERY_CACHE_NAME).get("query")).isEqualTo("result");
+    }
+
+    @Test
+    public void testUpdateTimestampsRegionEvictionClearsTheQueryResults() throws Exception {
+        cacheManagerB.getCache(QUERY_CACHE_NAME).put("query", "result");
+
+        busA.publishRegionEviction(UPDATE_TIMESTAMPS_CACHE_NAME);
+
+        await(() -> !cacheManagerB.getCache(QUERY_CACHE_NAME).containsKey("query"));
+    }
+
+    @Test
+    public void testDeserializationRejectsOtherClasses() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(Collections.singletonList(new StringBuilder("payload"))));
+        }
+
+        assertThatThrownBy(() -> CacheInvalidation.deserialize(bytes.toByteArray())).isInstanceOf(InvalidClassException.class);
+
+        List<CacheInvalidation> invalidations = CacheInvalidation.deserialize(CacheInvalidation.serialize(
+            Collections.singletonList(CacheInvalidation.ofKey(CACHE_NAME, 42L))));
+        assertThat(invalidations).containsExactly(CacheInvalidation.ofKey(CACHE_NAME, 42L));
+    }
+
+    private Cache<Object, Object> cacheA() {
+        return cacheManagerA.getCache(CACHE_NAME);
+    }
+
+    private Cache<Object, Object> cacheB() {
+        return cacheManagerB.getCache(CACHE_NAME);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
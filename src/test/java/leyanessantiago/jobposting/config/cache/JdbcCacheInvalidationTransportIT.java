@@ -0,0 +1,93 @@
+package leyanessantiago.jobposting.config.cache;
+
+import leyanessantiago.jobposting.JobpostingApp;
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link JdbcCacheInvalidationTransport}, with two nodes sharing the database.
+ * <p>
+ * Invalidations are inserted in their own transactions, so this test isn't transactional and deletes them.
+ * The pollers are slowed down, so the test reads the invalidations itself.
+ */
+@SpringBootTest(classes = JobpostingApp.class)
+public class JdbcCacheInvalidationTransportIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private JdbcCacheInvalidationTransport transportA;
+
+    private JdbcCacheInvalidationTransport transportB;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getInvalidation().setPollIntervalMs(60_000);
+        transportA = new JdbcCacheInvalidationTransport(jdbcTemplate, transactionManager, applicationProperties);
+        transportB = new JdbcCacheInvalidationTransport(jdbcTemplate, transactionManager, applicationProperties);
+        transportA.start(invalidations -> { });
+        transportB.start(invalidations -> { });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transportA.stop();
+        transportB.stop();
+        jdbcTemplate.update("delete from jhi_cache_invalidation");
+    }
+
+    @Test
+    public void assertThatInvalidationsAreReceivedByTheOtherNodesOnly() {
+        List<CacheInvalidation> invalidations = Arrays.asList(
+            CacheInvalidation.ofKey("usersByLogin", "user"), CacheInvalidation.ofRegion("usersByEmail"));
+
+        transportA.send(invalidations);
+
+        List<CacheInvalidation> receivedByA = new ArrayList<>();
+        List<CacheInvalidation> receivedByB = new ArrayList<>();
+        transportA.receive(receivedByA::addAll);
+        transportB.receive(receivedByB::addAll);
+        assertThat(receivedByA).isEmpty();
+        assertThat(receivedByB).containsExactlyElementsOf(invalidations);
+
+        // The invalidations are read once.
+        receivedByB.clear();
+        transportB.receive(receivedByB::addAll);
+        assertThat(receivedByB).isEmpty();
+    }
+
+    @Test
+    public void assertThatInvalidationsSentBeforeStartAreIgnored() {
+        transportA.send(Collections.singletonList(CacheInvalidation.ofKey("usersByLogin", "user")));
+        JdbcCacheInvalidationTransport transportC = new JdbcCacheInvalidationTransport(jdbcTemplate, transactionManager,
+            applicationProperties);
+        transportC.start(invalidations -> { });
+        try {
+            List<CacheInvalidation> received = new ArrayList<>();
+            transportC.receive(received::addAll);
+            assertThat(received).isEmpty();
+        } finally {
+            transportC.stop();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package leyanessantiago.jobposting.repository;
 import leyanessantiago.jobposting.JobpostingApp;
 import leyanessantiago.jobposting.config.Constants;
 import leyanessantiago.jobposting.config.audit.AuditEventConverter;
+import leyanessantiago.jobposting.config.audit.AuditEventWriter;
 import leyanessantiago.jobposting.domain.PersistentAuditEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,12 @@ public class CustomAuditEventRepositoryIT {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    /**
+     * Disabled in tests, so the events are written right away.
+     */
+    @Autowired
+    private AuditEventWriter auditEventWriter;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     private PersistentAuditEvent testUserEvent;
@@ -47,7 +54,7 @@ public class CustomAuditEventRepositoryIT {
 
     @BeforeEach
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter, auditEventWriter);
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
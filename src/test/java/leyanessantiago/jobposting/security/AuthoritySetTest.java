@@ -0,0 +1,46 @@
+package leyanessantiago.jobposting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link AuthoritySet}.
+ */
+public class AuthoritySetTest {
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        assertThat(AuthoritySet.intern(AuthoritiesConstants.ADMIN)).isSameAs(AuthoritySet.intern(AuthoritiesConstants.ADMIN));
+        assertThat(AuthoritySet.intern("ROLE_TEST")).isSameAs(AuthoritySet.intern("ROLE_TEST"));
+        assertThat(AuthoritySet.intern(AuthoritiesConstants.ADMIN)).isEqualTo(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+    }
+
+    @Test
+    public void testContains() {
+        AuthoritySet authoritySet = AuthoritySet.of(Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER),
+            new SimpleGrantedAuthority("ROLE_TEST"),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+
+        assertThat(authoritySet.contains(AuthoritiesConstants.USER)).isTrue();
+        assertThat(authoritySet.contains("ROLE_TEST")).isTrue();
+        assertThat(authoritySet.contains(AuthoritiesConstants.ADMIN)).isFalse();
+        assertThat(authoritySet.contains("ROLE_UNKNOWN")).isFalse();
+        assertThat(authoritySet.getAuthorities()).hasSize(2);
+    }
+
+    @Test
+    public void testParseReusesSets() {
+        AuthoritySet authoritySet = AuthoritySet.parse(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+
+        assertThat(AuthoritySet.parse(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER)).isSameAs(authoritySet);
+        assertThat(authoritySet.contains(AuthoritiesConstants.ADMIN)).isTrue();
+        assertThat(authoritySet.getAuthorities()).containsExactly(
+            AuthoritySet.intern(AuthoritiesConstants.ADMIN), AuthoritySet.intern(AuthoritiesConstants.USER));
+        assertThat(AuthoritySet.parse("").getAuthorities()).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package leyanessantiago.jobposting.security;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link PooledPasswordEncoder}.
+ */
+public class PooledPasswordEncoderTest {
+
+    private ApplicationProperties.PasswordHashing properties;
+
+    private MeterRegistry meterRegistry;
+
+    private PooledPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.PasswordHashing();
+        properties.setStrength(4);
+        properties.setThreads(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (passwordEncoder != null) {
+            passwordEncoder.destroy();
+        }
+    }
+
+    @Test
+    public void testPasswordsAreHashedOnThePool() {
+        passwordEncoder = new PooledPasswordEncoder(properties, meterRegistry);
+
+        String encodedPassword = passwordEncoder.encode("password");
+
+        assertThat(encodedPassword).startsWith("$2a$04$");
+        assertThat(passwordEncoder.matches("password", encodedPassword)).isTrue();
+        assertThat(passwordEncoder.matches("other", encodedPassword)).isFalse();
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hashing.queue").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPasswordsWithALowerCostAreUpgraded() {
+        properties.setStrength(5);
+        passwordEncoder = new PooledPasswordEncoder(properties, meterRegistry);
+
+        assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password"))).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    public void testCostIsCalibratedWithinBounds() {
+        properties.setMinStrength(4);
+        properties.setMaxStrength(6);
+
+        properties.setTargetMs(0);
+        assertThat(PooledPasswordEncoder.calibrate(properties)).isEqualTo(4);
+
+        properties.setTargetMs(Long.MAX_VALUE);
+        assertThat(PooledPasswordEncoder.calibrate(properties)).isEqualTo(6);
+    }
+}
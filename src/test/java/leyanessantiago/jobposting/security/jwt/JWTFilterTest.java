@@ -12,6 +12,7 @@ import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -19,6 +20,9 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class JWTFilterTest {
 
@@ -58,6 +62,34 @@ public class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString()).isEqualTo(jwt);
     }
 
+    @Test
+    public void testJWTFilterCachesVerifiedToken() throws Exception {
+        TokenProvider spiedTokenProvider = spy(tokenProvider);
+        jwtFilter = new JWTFilter(spiedTokenProvider);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication firstAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().setAuthentication(null);
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // The claims are cached, not the authentication, which is mutable
+        Authentication secondAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(secondAuthentication).isNotSameAs(firstAuthentication);
+        assertThat(secondAuthentication.getName()).isEqualTo("test-user");
+        assertThat(secondAuthentication.getAuthorities()).isEqualTo(firstAuthentication.getAuthorities());
+        assertThat(firstAuthentication.getName()).isEqualTo("test-user");
+        verify(spiedTokenProvider, times(1)).verifyToken(jwt);
+    }
+
     @Test
     public void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
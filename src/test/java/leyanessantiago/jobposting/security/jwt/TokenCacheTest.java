@@ -0,0 +1,57 @@
+package leyanessantiago.jobposting.security.jwt;
+
+import leyanessantiago.jobposting.security.AuthoritySet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void testExpiredTokenIsNotReturned() {
+        TokenCache tokenCache = new TokenCache(10);
+        String digest = TokenCache.digest("token");
+        VerifiedToken verifiedToken = createVerifiedToken(NOW + 1000);
+        tokenCache.put(digest, verifiedToken, NOW);
+
+        assertThat(tokenCache.get(digest, NOW + 999)).isSameAs(verifiedToken);
+        assertThat(tokenCache.get(digest, NOW + 1000)).isNull();
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCached() {
+        TokenCache tokenCache = new TokenCache(10);
+        tokenCache.put(TokenCache.digest("token"), createVerifiedToken(NOW), NOW);
+
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    public void testTokenWithoutExpirationIsNotCached() {
+        TokenCache tokenCache = new TokenCache(10);
+        tokenCache.put(TokenCache.digest("token"), createVerifiedToken(null), NOW);
+
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        TokenCache tokenCache = new TokenCache(10);
+        tokenCache.put(TokenCache.digest("expired"), createVerifiedToken(NOW + 10), NOW);
+        for (int i = 0; i < 100; i++) {
+            tokenCache.put(TokenCache.digest("token-" + i), createVerifiedToken(NOW + 1000), NOW + 10);
+        }
+
+        assertThat(tokenCache.size()).isLessThanOrEqualTo(10);
+        assertThat(tokenCache.get(TokenCache.digest("token-99"), NOW + 10)).isNotNull();
+        assertThat(tokenCache.get(TokenCache.digest("expired"), NOW + 10)).isNull();
+    }
+
+    private static VerifiedToken createVerifiedToken(Long expiration) {
+        return new VerifiedToken("token", "test-user", AuthoritySet.EMPTY, expiration);
+    }
+}
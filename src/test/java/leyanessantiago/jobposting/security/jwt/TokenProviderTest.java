@@ -55,6 +55,21 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testTokenWithoutExpirationIsVerified() {
+        String token = Jwts.builder()
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.USER)
+            .signWith(key, SignatureAlgorithm.HS512)
+            .compact();
+
+        VerifiedToken verifiedToken = tokenProvider.verifyToken(token);
+
+        assertThat(verifiedToken).isNotNull();
+        assertThat(verifiedToken.getExpiration()).isNull();
+        assertThat(verifiedToken.toAuthentication().getName()).isEqualTo("anonymous");
+    }
+
     @Test
     public void testReturnFalseWhenJWTisExpired() {
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
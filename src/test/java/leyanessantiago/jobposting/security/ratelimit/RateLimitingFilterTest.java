@@ -0,0 +1,166 @@
+package leyanessantiago.jobposting.security.ratelimit;
+
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link RateLimitingFilter}.
+ */
+public class RateLimitingFilterTest {
+
+    private ApplicationProperties.RateLimit properties;
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicLong clock;
+
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.RateLimit();
+        properties.getIp().setCapacity(3);
+        properties.getIp().setRefillTokens(3);
+        properties.getIp().setRefillPeriodSeconds(60);
+        properties.getAccount().setCapacity(2);
+        properties.getAccount().setRefillTokens(2);
+        properties.getAccount().setRefillPeriodSeconds(60);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        filter = new RateLimitingFilter(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    public void testLoginIsThrottledByAccount() throws Exception {
+        assertThat(authenticate("10.0.0.1", "John").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("10.0.0.2", "john").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = authenticate("10.0.0.3", "john");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(authenticate("10.0.0.3", "jane").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get("rate.limiter.requests").tag("limiter", "account").tag("result", "rejected")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRequestsAreThrottledByClientAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("10.0.0.1", "user" + i).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(authenticate("10.0.0.1", "user3").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThat(authenticate("10.0.0.1", "user3").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void testForwardedForIsIgnoredWithoutTrustedProxies() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("10.0.0.1", "203.0.113." + i, "user" + i).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(authenticate("10.0.0.1", "203.0.113.9", "user3").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void testRequestsFromTrustedProxiesAreThrottledByForwardedAddress() throws Exception {
+        properties.setTrustedProxies(Arrays.asList("10.0.0.0/8", "192.168.1.1"));
+        filter = new RateLimitingFilter(properties, new SimpleMeterRegistry(), clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            // The first address is forged by the client, the last one is added by an inner proxy.
+            assertThat(authenticate("10.0.0.1", "198.51.100." + i + ", 203.0.113.1, 192.168.1.1", "user" + i).getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(authenticate("10.0.0.1", "203.0.113.1", "user3").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(authenticate("10.0.0.1", "203.0.113.2", "user3").getStatus()).isEqualTo(HttpStatus.OK.value());
+        // A request which isn't from a trusted proxy keeps its remote address.
+        assertThat(authenticate("203.0.113.5", "203.0.113.1", "user4").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void testPasswordResetIsThrottledByEmail() throws Exception {
+        assertThat(post("/api/account/reset-password/init", "10.0.0.1", "john@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(post("/api/account/reset-password/init", "10.0.0.2", "JOHN@example.com").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(post("/api/account/reset-password/init", "10.0.0.3", "john@example.com").getStatus())
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void testBodyIsReplayedToTheController() throws Exception {
+        MockHttpServletRequest request = createRequest("/api/register", "10.0.0.1", "{\"login\":\"john\",\"email\":\"john@example.com\"}");
+        MockFilterChain filterChain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(StreamUtils.copyToString(filterChain.getRequest().getInputStream(), StandardCharsets.UTF_8))
+            .isEqualTo("{\"login\":\"john\",\"email\":\"john@example.com\"}");
+    }
+
+    @Test
+    public void testOtherRequestsAreNotThrottled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(post("/api/account/reset-password/finish", "10.0.0.1", "{}").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedKeysAreEvicted() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", properties.getIp(), 2, 1, registry, clock::get);
+
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(registry.get("rate.limiter.evictions").counter().count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse authenticate(String remoteAddr, String username) throws Exception {
+        return post("/api/authenticate", remoteAddr, "{\"username\":\"" + username + "\",\"password\":\"test\"}");
+    }
+
+    private MockHttpServletResponse authenticate(String remoteAddr, String forwardedFor, String username) throws Exception {
+        MockHttpServletRequest request = createRequest("/api/authenticate", remoteAddr,
+            "{\"username\":\"" + username + "\",\"password\":\"test\"}");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse post(String path, String remoteAddr, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(createRequest(path, remoteAddr, body), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest createRequest(String path, String remoteAddr, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddr);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,72 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link ActiveAdvertisementCounters}.
+ */
+public class ActiveAdvertisementCountersTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-17T10:00:00Z");
+
+    private static final ProfessionCounters.Key KEY = new ProfessionCounters.Key(10L, "user");
+
+    private AdvertisementRepository advertisementRepository;
+
+    private ActiveAdvertisementCounters activeAdvertisementCounters;
+
+    @BeforeEach
+    public void setup() {
+        advertisementRepository = mock(AdvertisementRepository.class);
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{1L, LAST_MODIFIED}));
+        when(advertisementRepository.countActiveByProfessionAndUser())
+            .thenReturn(Collections.singletonList(new Object[]{10L, "user", 1L}));
+        activeAdvertisementCounters = new ActiveAdvertisementCounters(advertisementRepository);
+    }
+
+    @Test
+    public void testChangesDuringRebuildAreReplayed() {
+        assertThat(activeAdvertisementCounters.count("user")).isEqualTo(1L);
+        when(advertisementRepository.countActiveByProfessionAndUser()).thenAnswer(invocation -> {
+            // Committed after the query read the table
+            activeAdvertisementCounters.update(null, KEY);
+            return Collections.singletonList(new Object[]{10L, "user", 1L});
+        });
+
+        activeAdvertisementCounters.rebuild();
+
+        assertThat(activeAdvertisementCounters.count("user")).isEqualTo(2L);
+        assertThat(activeAdvertisementCounters.countByProfession()).containsEntry(10L, 2L);
+    }
+
+    @Test
+    public void testRefreshRebuildsWhenTheAdvertisementsChanged() {
+        assertThat(activeAdvertisementCounters.count("user")).isEqualTo(1L);
+
+        activeAdvertisementCounters.refresh();
+        verify(advertisementRepository, times(1)).countActiveByProfessionAndUser();
+
+        // Written by another node
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{2L, LAST_MODIFIED.plusSeconds(1)}));
+        when(advertisementRepository.countActiveByProfessionAndUser())
+            .thenReturn(Collections.singletonList(new Object[]{10L, "user", 2L}));
+        activeAdvertisementCounters.refresh();
+
+        verify(advertisementRepository, times(2)).countActiveByProfessionAndUser();
+        assertThat(activeAdvertisementCounters.count("user")).isEqualTo(2L);
+    }
+}
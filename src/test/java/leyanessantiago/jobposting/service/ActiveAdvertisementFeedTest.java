@@ -0,0 +1,77 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Advertisement;
+import leyanessantiago.jobposting.domain.Profession;
+import leyanessantiago.jobposting.domain.User;
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link ActiveAdvertisementFeed}.
+ */
+public class ActiveAdvertisementFeedTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-17T10:00:00Z");
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+
+    private Advertisement advertisement;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        Profession profession = new Profession().name("Developer");
+        profession.setId(1L);
+        User user = new User();
+        user.setId(2L);
+        user.setLastModifiedDate(LAST_MODIFIED.minusSeconds(60));
+        advertisement = new Advertisement().title("title").description("description").active(true)
+            .profession(profession).user(user);
+        advertisement.setId(3L);
+        advertisement.setLastModifiedDate(LAST_MODIFIED.minusSeconds(30));
+        when(advertisementRepository.findAllActiveWithEagerRelationships()).thenReturn(Collections.singletonList(advertisement));
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{1L, LAST_MODIFIED}));
+    }
+
+    @Test
+    public void testValidatorsAreTheSameOnEveryNode() {
+        ActiveAdvertisementFeed.Snapshot snapshot = new ActiveAdvertisementFeed(advertisementRepository).getSnapshot();
+        ActiveAdvertisementFeed otherNodeFeed = new ActiveAdvertisementFeed(advertisementRepository);
+        otherNodeFeed.invalidate();
+        ActiveAdvertisementFeed.Snapshot otherNodeSnapshot = otherNodeFeed.getSnapshot();
+
+        assertThat(otherNodeSnapshot).isNotSameAs(snapshot);
+        assertThat(otherNodeSnapshot.getETag()).isEqualTo(snapshot.getETag());
+        assertThat(snapshot.getLastModified()).isEqualTo(LAST_MODIFIED);
+        assertThat(otherNodeSnapshot.getLastModified()).isEqualTo(LAST_MODIFIED);
+    }
+
+    @Test
+    public void testETagChangesWithTheContent() {
+        List<Advertisement> advertisements = Collections.singletonList(advertisement);
+        String eTag = ActiveAdvertisementFeed.hash(advertisements);
+
+        advertisement.getProfession().setName("Designer");
+        assertThat(ActiveAdvertisementFeed.hash(advertisements)).isNotEqualTo(eTag);
+
+        advertisement.getProfession().setName("Developer");
+        assertThat(ActiveAdvertisementFeed.hash(advertisements)).isEqualTo(eTag);
+        advertisement.setLastModifiedDate(LAST_MODIFIED);
+        assertThat(ActiveAdvertisementFeed.hash(advertisements)).isNotEqualTo(eTag);
+
+        assertThat(ActiveAdvertisementFeed.hash(Collections.emptyList())).isNotEqualTo(eTag);
+    }
+}
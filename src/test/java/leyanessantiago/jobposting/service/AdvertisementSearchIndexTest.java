@@ -0,0 +1,114 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Advertisement;
+import leyanessantiago.jobposting.domain.Profession;
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link AdvertisementSearchIndex}.
+ */
+public class AdvertisementSearchIndexTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-17T10:00:00Z");
+
+    private AdvertisementRepository advertisementRepository;
+
+    private AdvertisementSearchIndex advertisementSearchIndex;
+
+    @BeforeEach
+    public void setup() {
+        advertisementRepository = mock(AdvertisementRepository.class);
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{3L, LAST_MODIFIED}));
+        when(advertisementRepository.findAllActiveSearchFields()).thenReturn(Arrays.asList(
+            new Object[]{1L, "Java developer", "Backend work on a Spring application", 10L},
+            new Object[]{2L, "Nurse", "Night shifts, java coffee included", 20L},
+            new Object[]{3L, "Senior Java developer", "Java and Spring, remote", 10L}));
+        advertisementSearchIndex = new AdvertisementSearchIndex(advertisementRepository);
+        advertisementSearchIndex.rebuild();
+    }
+
+    @Test
+    public void testSearchRanksTitleMatchesFirst() {
+        AdvertisementSearchIndex.SearchResult result = advertisementSearchIndex.search("JAVA", null, 10);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getIds()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    public void testSearchMatchesAllTerms() {
+        assertThat(advertisementSearchIndex.search("java spring", null, 10).getIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(advertisementSearchIndex.search("java kotlin", null, 10).getIds()).isEmpty();
+        assertThat(advertisementSearchIndex.search("  ", null, 10).getIds()).isEmpty();
+    }
+
+    @Test
+    public void testSearchFiltersOnProfessionAndLimit() {
+        AdvertisementSearchIndex.SearchResult result = advertisementSearchIndex.search("java", 10L, 1);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getIds()).containsExactly(3L);
+    }
+
+    @Test
+    public void testIndexAndRemove() {
+        Profession profession = new Profession();
+        profession.setId(20L);
+        Advertisement advertisement = new Advertisement().title("Pédiatre").description("Hôpital").active(true)
+            .profession(profession);
+        advertisement.setId(4L);
+
+        advertisementSearchIndex.index(advertisement);
+        assertThat(advertisementSearchIndex.search("pediatre hopital", null, 10).getIds()).containsExactly(4L);
+
+        advertisementSearchIndex.index(advertisement.active(false));
+        assertThat(advertisementSearchIndex.search("pediatre", null, 10).getIds()).isEmpty();
+
+        advertisementSearchIndex.remove(3L);
+        assertThat(advertisementSearchIndex.search("java", null, 10).getIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testRemoveMovesTheLastPostings() {
+        advertisementSearchIndex.remove(1L);
+        assertThat(advertisementSearchIndex.search("java", null, 10).getIds()).containsExactlyInAnyOrder(2L, 3L);
+
+        // The postings of the moved advertisement are still found by their new position.
+        advertisementSearchIndex.remove(3L);
+        assertThat(advertisementSearchIndex.search("java", null, 10).getIds()).containsExactly(2L);
+        assertThat(advertisementSearchIndex.search("spring", null, 10).getIds()).isEmpty();
+
+        advertisementSearchIndex.remove(2L);
+        assertThat(advertisementSearchIndex.search("java", null, 10).getIds()).isEmpty();
+    }
+
+    @Test
+    public void testRefreshRebuildsWhenTheAdvertisementsHaveChanged() {
+        advertisementSearchIndex.refresh();
+        verify(advertisementRepository, times(1)).findAllActiveSearchFields();
+
+        // An advertisement deactivated on another node.
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{3L, LAST_MODIFIED.plusSeconds(1)}));
+        when(advertisementRepository.findAllActiveSearchFields()).thenReturn(Collections.singletonList(
+            new Object[]{1L, "Java developer", "Backend work on a Spring application", 10L}));
+        advertisementSearchIndex.refresh();
+
+        verify(advertisementRepository, times(2)).findAllActiveSearchFields();
+        assertThat(advertisementSearchIndex.search("java", null, 10).getIds()).containsExactly(1L);
+    }
+}
@@ -0,0 +1,68 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.JobpostingApp;
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
+import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventRetentionService}.
+ */
+@SpringBootTest(classes = JobpostingApp.class)
+@Transactional
+public class AuditEventRetentionServiceIT {
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private AuditEventRetentionService auditEventRetentionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void init() {
+        persistenceAuditEventRepository.deleteAll();
+    }
+
+    @Test
+    public void assertThatOldEventsArePurged() {
+        Instant now = Instant.now();
+        PersistentAuditEvent oldEvent = createEvent(now.minus(200, ChronoUnit.DAYS));
+        PersistentAuditEvent recentEvent = createEvent(now.minus(1, ChronoUnit.DAYS));
+
+        long purged = auditEventRetentionService.purgeEventsBefore(now.minus(180, ChronoUnit.DAYS));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("select event_id from jhi_persistent_audit_event", Long.class))
+            .containsExactly(recentEvent.getId());
+        assertThat(jdbcTemplate.queryForList("select event_id from jhi_persistent_audit_evt_data", Long.class))
+            .containsExactly(recentEvent.getId())
+            .doesNotContain(oldEvent.getId());
+    }
+
+    private PersistentAuditEvent createEvent(Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal("test-user");
+        event.setAuditEventType("test-type");
+        event.setAuditEventDate(date);
+        Map<String, String> data = new HashMap<>();
+        data.put("test-key", "test-value");
+        event.setData(data);
+        return persistenceAuditEventRepository.saveAndFlush(event);
+    }
+}
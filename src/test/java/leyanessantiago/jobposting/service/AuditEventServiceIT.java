@@ -0,0 +1,107 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.JobpostingApp;
+import leyanessantiago.jobposting.domain.PersistentAuditEvent;
+import leyanessantiago.jobposting.repository.CustomAuditEventRepository;
+import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventService}, checking the data of the events is loaded with one query per page.
+ */
+@SpringBootTest(classes = JobpostingApp.class)
+@Transactional
+public class AuditEventServiceIT {
+
+    private static final int EVENT_COUNT = 15;
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final Instant SAMPLE_TIMESTAMP = Instant.parse("2015-08-04T10:11:30Z");
+
+    @Autowired
+    private AuditEventService auditEventService;
+
+    @Autowired
+    private CustomAuditEventRepository customAuditEventRepository;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void init() {
+        persistenceAuditEventRepository.deleteAll();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            PersistentAuditEvent event = new PersistentAuditEvent();
+            event.setPrincipal("test-user");
+            event.setAuditEventType("test-type");
+            event.setAuditEventDate(SAMPLE_TIMESTAMP.plusSeconds(i));
+            event.getData().put("remoteAddress", "127.0.0.1");
+            event.getData().put("sessionId", "session-" + i);
+            persistenceAuditEventRepository.save(event);
+        }
+        em.flush();
+        em.clear();
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void assertThatFindAllLoadsDataInOneQuery() {
+        Page<AuditEvent> page = auditEventService.findAll(PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(EVENT_COUNT);
+        assertThat(page.getContent()).allSatisfy(event -> assertThat(event.getData()).hasSize(2));
+        // The page, its total count, then the data of all its events.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void assertThatFindByDatesLoadsDataInOneQuery() {
+        Page<AuditEvent> page = auditEventService.findByDates(SAMPLE_TIMESTAMP.minusSeconds(1),
+            SAMPLE_TIMESTAMP.plusSeconds(EVENT_COUNT), PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(EVENT_COUNT);
+        assertThat(page.getContent()).allSatisfy(event -> assertThat(event.getData()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void assertThatFindLoadsDataWithTheEvents() {
+        List<AuditEvent> events = customAuditEventRepository.find("test-user", SAMPLE_TIMESTAMP.minusSeconds(1), "test-type");
+
+        assertThat(events).hasSize(EVENT_COUNT);
+        assertThat(events).allSatisfy(event -> assertThat(event.getData()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
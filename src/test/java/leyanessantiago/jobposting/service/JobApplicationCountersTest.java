@@ -0,0 +1,61 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.repository.AdvertisementRepository;
+import leyanessantiago.jobposting.repository.CandidateRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link JobApplicationCounters}.
+ */
+public class JobApplicationCountersTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-17T10:00:00Z");
+
+    private CandidateRepository candidateRepository;
+
+    private AdvertisementRepository advertisementRepository;
+
+    private JobApplicationCounters jobApplicationCounters;
+
+    @BeforeEach
+    public void setup() {
+        candidateRepository = mock(CandidateRepository.class);
+        advertisementRepository = mock(AdvertisementRepository.class);
+        when(candidateRepository.findApplicationsCountAndKeySums())
+            .thenReturn(Collections.singletonList(new Object[]{1L, 100L, 200L}));
+        when(advertisementRepository.findCountAndLastModifiedDate())
+            .thenReturn(Collections.singletonList(new Object[]{1L, LAST_MODIFIED}));
+        when(candidateRepository.countByProfessionAndUser())
+            .thenReturn(Collections.singletonList(new Object[]{10L, "user", 1L}));
+        jobApplicationCounters = new JobApplicationCounters(candidateRepository, advertisementRepository);
+    }
+
+    @Test
+    public void testRefreshRebuildsOnlyWhenTheApplicationsChanged() {
+        assertThat(jobApplicationCounters.countByProfession()).containsEntry(10L, 1L);
+
+        jobApplicationCounters.refresh();
+        verify(candidateRepository, times(1)).countByProfessionAndUser();
+
+        // Written by another node
+        when(candidateRepository.findApplicationsCountAndKeySums())
+            .thenReturn(Collections.singletonList(new Object[]{2L, 101L, 200L}));
+        when(candidateRepository.countByProfessionAndUser())
+            .thenReturn(Collections.singletonList(new Object[]{10L, "user", 2L}));
+        jobApplicationCounters.refresh();
+
+        verify(candidateRepository, times(2)).countByProfessionAndUser();
+        assertThat(jobApplicationCounters.countByProfession()).containsEntry(10L, 2L);
+    }
+}
@@ -0,0 +1,66 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.JobpostingApp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link JobLockService}.
+ * <p>
+ * Locks are taken in their own transactions, so this test isn't transactional and deletes its locks.
+ */
+@SpringBootTest(classes = JobpostingApp.class)
+public class JobLockServiceIT {
+
+    private static final String LOCK_NAME = "test-lock";
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void deleteLock() {
+        jdbcTemplate.update("delete from jhi_job_lock where name = ?", LOCK_NAME);
+    }
+
+    @Test
+    public void assertThatLockCanBeTakenAgainAfterUnlock() {
+        assertThat(jobLockService.tryLock(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+        // The node holding the lock extends it.
+        assertThat(jobLockService.tryLock(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+
+        jobLockService.unlock(LOCK_NAME);
+
+        assertThat(jobLockService.tryLock(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    public void assertThatLockHeldByAnotherNodeIsNotTaken() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into jhi_job_lock (name, locked_until, locked_at, locked_by) values (?, ?, ?, ?)",
+            LOCK_NAME, Timestamp.valueOf(now.plusYears(1)), Timestamp.valueOf(now), "other-node");
+
+        assertThat(jobLockService.tryLock(LOCK_NAME, Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    public void assertThatExpiredLockIsTaken() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into jhi_job_lock (name, locked_until, locked_at, locked_by) values (?, ?, ?, ?)",
+            LOCK_NAME, Timestamp.valueOf(now.minusYears(1)), Timestamp.valueOf(now.minusYears(2)), "other-node");
+
+        assertThat(jobLockService.tryLock(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+    }
+}
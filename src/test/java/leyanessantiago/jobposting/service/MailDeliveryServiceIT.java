@@ -0,0 +1,159 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.JobpostingApp;
+import leyanessantiago.jobposting.config.ApplicationProperties;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link MailDeliveryService}, against an in-process SMTP server.
+ * <p>
+ * The outbox is written in its own transactions, so this test isn't transactional and empties the outbox.
+ */
+@SpringBootTest(classes = JobpostingApp.class)
+public class MailDeliveryServiceIT {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SmtpServerStub smtpServer;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private final List<MailDeliveryService> mailDeliveryServices = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        smtpServer = new SmtpServerStub();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("127.0.0.1");
+        javaMailSender.setPort(smtpServer.getPort());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailDelivery().setWorkers(1);
+        applicationProperties.getMailDelivery().setInitialBackoffMs(0);
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate.update("delete from jhi_mail_outbox");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (MailDeliveryService mailDeliveryService : mailDeliveryServices) {
+            mailDeliveryService.destroy();
+        }
+        smtpServer.close();
+        jdbcTemplate.update("delete from jhi_mail_outbox");
+    }
+
+    @Test
+    public void testQueuedMailsAreSentOverOneConnection() throws Exception {
+        MailDeliveryService mailDeliveryService = createMailDeliveryService();
+        for (int i = 0; i < 3; i++) {
+            mailDeliveryService.submit("john.doe" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+        assertThat(countOutboxMails()).isEqualTo(3);
+
+        mailDeliveryService.afterPropertiesSet();
+
+        waitFor(() -> countOutboxMails() == 0);
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        assertThat(smtpServer.getMessages().get(0)).contains("Subject: testSubject", "testContent");
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.delivery.mails").tag("result", "sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.delivery.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testRejectedMailIsRetriedFromTheOutbox() throws Exception {
+        smtpServer.rejectNextMessages(1);
+        MailDeliveryService mailDeliveryService = createMailDeliveryService();
+        mailDeliveryService.afterPropertiesSet();
+
+        mailDeliveryService.submit("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        waitFor(() -> jdbcTemplate.queryForObject("select count(*) from jhi_mail_outbox where attempts = 1", Long.class) == 1);
+        assertThat(smtpServer.getMessages()).isEmpty();
+        assertThat(meterRegistry.get("mail.delivery.mails").tag("result", "retried").counter().count()).isEqualTo(1);
+
+        mailDeliveryService.pollOutbox();
+
+        waitFor(() -> countOutboxMails() == 0);
+        assertThat(smtpServer.getMessages()).hasSize(1);
+    }
+
+    @Test
+    public void testMailIsMarkedAsFailedAfterMaxAttempts() throws Exception {
+        smtpServer.rejectNextMessages(1);
+        applicationProperties.getMailDelivery().setMaxAttempts(1);
+        MailDeliveryService mailDeliveryService = createMailDeliveryService();
+        mailDeliveryService.afterPropertiesSet();
+
+        mailDeliveryService.submit("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        waitFor(() -> jdbcTemplate.queryForObject("select count(*) from jhi_mail_outbox where failed = true", Long.class) == 1);
+        mailDeliveryService.pollOutbox();
+        assertThat(smtpServer.getMessages()).isEmpty();
+        assertThat(meterRegistry.get("mail.delivery.mails").tag("result", "failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOutboxMailsAreSentAfterRestart() throws Exception {
+        applicationProperties.getMailDelivery().setLeaseMs(0);
+        MailDeliveryService stoppedMailDeliveryService = createMailDeliveryService();
+        stoppedMailDeliveryService.submit("john.doe@example.com", "testSubject", "testContent", false, false);
+        stoppedMailDeliveryService.destroy();
+
+        MailDeliveryService mailDeliveryService = createMailDeliveryService();
+        mailDeliveryService.afterPropertiesSet();
+        mailDeliveryService.pollOutbox();
+
+        waitFor(() -> countOutboxMails() == 0);
+        assertThat(smtpServer.getMessages()).hasSize(1);
+    }
+
+    private MailDeliveryService createMailDeliveryService() {
+        MailDeliveryService mailDeliveryService = new MailDeliveryService(javaMailSender, jHipsterProperties, jdbcTemplate,
+            transactionManager, applicationProperties, meterRegistry);
+        mailDeliveryServices.add(mailDeliveryService);
+        return mailDeliveryService;
+    }
+
+    private long countOutboxMails() {
+        return jdbcTemplate.queryForObject("select count(*) from jhi_mail_outbox", Long.class);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("Timed out waiting for the mails").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.User;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}.
+ */
+public class MailTemplateRendererTest {
+
+    private static final String BASE_URL = "http://127.0.0.1:8080";
+
+    private StaticMessageSource messageSource;
+
+    private SpringTemplateEngine templateEngine;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "test title");
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl(BASE_URL);
+
+        user = new User();
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        user.setLangKey("en");
+    }
+
+    @Test
+    public void testRender() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, null);
+
+        MailTemplateRenderer.RenderedMail mail = renderer.render(user, "mail/testEmail", "email.test.title");
+
+        assertThat(mail.getUser()).isSameAs(user);
+        assertThat(mail.getSubject()).isEqualTo("test title");
+        assertThat(mail.getContent()).isEqualToNormalizingNewlines("<html>test title, " + BASE_URL + ", john</html>\n");
+    }
+
+    @Test
+    public void testSubjectsAreCachedWhenTheMessagesAreNotReloadable() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, null);
+        renderer.render(user, "mail/testEmail", "email.test.title");
+
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "new test title");
+
+        assertThat(renderer.render(user, "mail/testEmail", "email.test.title").getSubject()).isEqualTo("test title");
+    }
+
+    @Test
+    public void testSubjectsAreClearedWhenTheMessagesAreReloadable() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, Duration.ZERO);
+        renderer.render(user, "mail/testEmail", "email.test.title");
+
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "new test title");
+
+        assertThat(renderer.render(user, "mail/testEmail", "email.test.title").getSubject()).isEqualTo("new test title");
+    }
+}
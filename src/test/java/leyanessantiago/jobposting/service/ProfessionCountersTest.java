@@ -0,0 +1,38 @@
+package leyanessantiago.jobposting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ProfessionCounters}.
+ */
+public class ProfessionCountersTest {
+
+    @Test
+    public void testCountsByProfessionAndOwner() {
+        ProfessionCounters counters = ProfessionCounters.fromRows(Arrays.asList(
+            new Object[]{1L, "alice", 2L},
+            new Object[]{1L, "bob", 1L},
+            new Object[]{2L, "alice", 3L}));
+
+        assertThat(counters.countByProfession()).containsEntry(1L, 3L).containsEntry(2L, 3L).hasSize(2);
+        assertThat(counters.countByProfession("alice")).containsEntry(1L, 2L).containsEntry(2L, 3L).hasSize(2);
+        assertThat(counters.count("alice")).isEqualTo(5L);
+        assertThat(counters.count("carol")).isEqualTo(0L);
+    }
+
+    @Test
+    public void testZeroCountsAreHidden() {
+        ProfessionCounters counters = new ProfessionCounters();
+        ProfessionCounters.Key key = new ProfessionCounters.Key(1L, "alice");
+        counters.add(key, 1L);
+        counters.add(key, -1L);
+
+        assertThat(counters.countByProfession()).isEmpty();
+        assertThat(counters.countByProfession("alice")).isEmpty();
+        assertThat(counters.sameCountsAs(new ProfessionCounters())).isTrue();
+    }
+}
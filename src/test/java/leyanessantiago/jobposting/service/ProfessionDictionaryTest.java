@@ -0,0 +1,70 @@
+package leyanessantiago.jobposting.service;
+
+import leyanessantiago.jobposting.domain.Profession;
+import leyanessantiago.jobposting.repository.ProfessionRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link ProfessionDictionary}.
+ */
+public class ProfessionDictionaryTest {
+
+    @Mock
+    private ProfessionRepository professionRepository;
+
+    private ProfessionDictionary professionDictionary;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        Profession developer = new Profession().name("Developer");
+        developer.setId(1000L);
+        Profession designer = new Profession().name("Designer");
+        designer.setId(7L);
+        when(professionRepository.findAll()).thenReturn(Arrays.asList(developer, designer));
+        when(professionRepository.findById(anyLong())).thenReturn(Optional.empty());
+        professionDictionary = new ProfessionDictionary(professionRepository);
+    }
+
+    @Test
+    public void testLoadsOnceAndResolvesIdsOutsideTheLongCache() {
+        assertThat(professionDictionary.getName(1000L)).isEqualTo("Developer");
+        assertThat(professionDictionary.getName(7L)).isEqualTo("Designer");
+        assertThat(professionDictionary.getName(1000L)).isEqualTo("Developer");
+        verify(professionRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        professionDictionary.put(500L, "Tester");
+        professionDictionary.put(7L, "UX Designer");
+        assertThat(professionDictionary.getName(500L)).isEqualTo("Tester");
+        assertThat(professionDictionary.getName(7L)).isEqualTo("UX Designer");
+
+        professionDictionary.remove(500L);
+        assertThat(professionDictionary.getName(500L)).isNull();
+        assertThat(professionDictionary.getName(1000L)).isEqualTo("Developer");
+    }
+
+    @Test
+    public void testUnknownIdIsResolvedFromTheDatabase() {
+        Profession profession = new Profession().name("Manager");
+        profession.setId(42L);
+        when(professionRepository.findById(42L)).thenReturn(Optional.of(profession));
+
+        assertThat(professionDictionary.getName(42L)).isEqualTo("Manager");
+        assertThat(professionDictionary.getName(42L)).isEqualTo("Manager");
+        verify(professionRepository, times(1)).findById(42L);
+    }
+}
@@ -0,0 +1,125 @@
+package leyanessantiago.jobposting.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal in-process SMTP server, recording the messages it receives.
+ * <p>
+ * It accepts any sender and recipient, handles one connection at a time, and can be told to reject the next
+ * messages with a transient error.
+ */
+final class SmtpServerStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicInteger rejectedMessages = new AtomicInteger();
+
+    SmtpServerStub() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(this::accept, "smtp-server-stub");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the received messages, with their headers.
+     */
+    List<String> getMessages() {
+        return messages;
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Reject the next messages with a {@code 451} reply.
+     *
+     * @param count the number of messages to reject.
+     */
+    void rejectNextMessages(int count) {
+        rejectedMessages.set(count);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connections.incrementAndGet();
+                handle(socket);
+            } catch (IOException e) {
+                // The server is closed, or the client went away.
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        reply(writer, "220 localhost SMTP stub");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String command = line.length() < 4 ? line : line.substring(0, 4);
+            switch (command.toUpperCase(Locale.ROOT)) {
+                case "EHLO":
+                case "HELO":
+                    reply(writer, "250 localhost");
+                    break;
+                case "MAIL":
+                case "RCPT":
+                case "RSET":
+                case "NOOP":
+                    reply(writer, "250 OK");
+                    break;
+                case "DATA":
+                    reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder message = new StringBuilder();
+                    while ((line = reader.readLine()) != null && !line.equals(".")) {
+                        message.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+                    }
+                    if (rejectedMessages.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                        reply(writer, "451 Try again later");
+                    } else {
+                        messages.add(message.toString());
+                        reply(writer, "250 OK");
+                    }
+                    break;
+                case "QUIT":
+                    reply(writer, "221 Bye");
+                    return;
+                default:
+                    reply(writer, "502 Command not implemented");
+            }
+        }
+    }
+
+    private static void reply(Writer writer, String reply) throws IOException {
+        writer.write(reply);
+        writer.write("\r\n");
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -5,8 +5,12 @@ import leyanessantiago.jobposting.domain.Advertisement;
 import leyanessantiago.jobposting.domain.Profession;
 import leyanessantiago.jobposting.domain.User;
 import leyanessantiago.jobposting.repository.AdvertisementRepository;
-import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.service.ActiveAdvertisementCounters;
+import leyanessantiago.jobposting.service.ActiveAdvertisementFeed;
+import leyanessantiago.jobposting.service.AdvertisementSearchIndex;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
 import leyanessantiago.jobposting.web.rest.errors.ExceptionTranslator;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,7 +31,10 @@ import java.util.List;
 
 import static leyanessantiago.jobposting.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -49,7 +57,16 @@ public class AdvertisementResourceIT {
     private AdvertisementRepository advertisementRepository;
 
     @Autowired
-    private ProfessionRepository professionRepository;
+    private ProfessionDictionary professionDictionary;
+
+    @Autowired
+    private ActiveAdvertisementCounters activeAdvertisementCounters;
+
+    @Autowired
+    private ActiveAdvertisementFeed activeAdvertisementFeed;
+
+    @Autowired
+    private AdvertisementSearchIndex advertisementSearchIndex;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -73,7 +90,8 @@ public class AdvertisementResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final AdvertisementResource advertisementResource = new AdvertisementResource(advertisementRepository, professionRepository);
+        final AdvertisementResource advertisementResource = new AdvertisementResource(advertisementRepository, professionDictionary, activeAdvertisementCounters,
+            activeAdvertisementFeed, advertisementSearchIndex);
         this.restAdvertisementMockMvc = MockMvcBuilders.standaloneSetup(advertisementResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -236,6 +254,51 @@ public class AdvertisementResourceIT {
             .andExpect(jsonPath("$.[*].active").value(hasItem(DEFAULT_ACTIVE.booleanValue())));
     }
 
+    @Test
+    @Transactional
+    public void getActiveAdvertisementsNotModified() throws Exception {
+        // Initialize the database
+        advertisementRepository.saveAndFlush(advertisement.active(true));
+        activeAdvertisementFeed.invalidate();
+
+        String eTag = restAdvertisementMockMvc.perform(get("/api/advertisements/active"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(advertisement.getId().intValue())))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        // The feed hasn't changed
+        restAdvertisementMockMvc.perform(get("/api/advertisements/active").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    public void getActiveAdvertisementsByPage() throws Exception {
+        // Initialize the database
+        Advertisement first = advertisementRepository.saveAndFlush(advertisement.active(true));
+        Advertisement second = advertisementRepository.saveAndFlush(createEntity(em).active(true));
+        Advertisement third = advertisementRepository.saveAndFlush(createEntity(em).active(true));
+        activeAdvertisementFeed.invalidate();
+        String firstCursor = KeysetPaginationUtil.encodeCursor(first.getId() - 1);
+
+        // Get the first page, and the link to the next one
+        restAdvertisementMockMvc.perform(get("/api/advertisements/active?size=2&after=" + firstCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK,
+                containsString("after=" + KeysetPaginationUtil.encodeCursor(second.getId()) + "&size=2>; rel=\"next\"")))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("after=&size=2>; rel=\"first\"")));
+
+        // Get the last page
+        restAdvertisementMockMvc.perform(get("/api/advertisements/active?size=2&after=" + KeysetPaginationUtil.encodeCursor(second.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
     @Test
     @Transactional
     public void getAdvertisement() throws Exception {
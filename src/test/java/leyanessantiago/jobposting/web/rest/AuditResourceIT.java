@@ -5,7 +5,10 @@ import leyanessantiago.jobposting.config.audit.AuditEventConverter;
 import leyanessantiago.jobposting.domain.PersistentAuditEvent;
 import leyanessantiago.jobposting.repository.PersistenceAuditEventRepository;
 
+import leyanessantiago.jobposting.service.AuditEventExportService;
 import leyanessantiago.jobposting.service.AuditEventService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
@@ -20,9 +23,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.time.Instant;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,6 +60,12 @@ public class AuditResourceIT {
     @Autowired
     private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private PersistentAuditEvent auditEvent;
 
     private MockMvc restAuditMockMvc;
@@ -64,7 +75,8 @@ public class AuditResourceIT {
         MockitoAnnotations.initMocks(this);
         AuditEventService auditEventService =
             new AuditEventService(auditEventRepository, auditEventConverter);
-        AuditResource auditResource = new AuditResource(auditEventService);
+        AuditEventExportService auditEventExportService = new AuditEventExportService(dataSource, objectMapper);
+        AuditResource auditResource = new AuditResource(auditEventService, auditEventExportService);
         this.restAuditMockMvc = MockMvcBuilders.standaloneSetup(auditResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setConversionService(formattingConversionService)
@@ -136,6 +148,39 @@ public class AuditResourceIT {
             .andExpect(header().string("X-Total-Count", "0"));
     }
 
+    @Test
+    public void exportAuditsByDate() throws Exception {
+        // Initialize the database
+        auditEvent.getData().put("remoteAddress", "127.0.0.1");
+        auditEventRepository.saveAndFlush(auditEvent);
+
+        String fromDate = SAMPLE_TIMESTAMP.minusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        String toDate = SAMPLE_TIMESTAMP.plusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+
+        // Export the audits, one JSON object per line
+        restAuditMockMvc.perform(get("/management/audits/export?fromDate=" + fromDate + "&toDate=" + toDate))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+            .andExpect(content().string("{\"timestamp\":\"" + SAMPLE_TIMESTAMP + "\",\"principal\":\"" + SAMPLE_PRINCIPAL +
+                "\",\"type\":\"" + SAMPLE_TYPE + "\",\"data\":{\"remoteAddress\":\"127.0.0.1\"}}\n"));
+    }
+
+    @Test
+    public void exportAuditsByDateAsCsv() throws Exception {
+        // Initialize the database
+        auditEventRepository.saveAndFlush(auditEvent);
+
+        String fromDate = SAMPLE_TIMESTAMP.minusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        String toDate = SAMPLE_TIMESTAMP.plusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+
+        // Export the audits, with a header line
+        restAuditMockMvc.perform(get("/management/audits/export?fromDate=" + fromDate + "&toDate=" + toDate + "&format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", containsString("text/csv")))
+            .andExpect(content().string("timestamp,principal,type,data\n" +
+                SAMPLE_TIMESTAMP + "," + SAMPLE_PRINCIPAL + "," + SAMPLE_TYPE + ",{}\n"));
+    }
+
     @Test
     public void getNonExistingAudit() throws Exception {
         // Get the audit
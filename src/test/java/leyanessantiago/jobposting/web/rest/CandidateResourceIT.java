@@ -1,9 +1,14 @@
 package leyanessantiago.jobposting.web.rest;
 
 import leyanessantiago.jobposting.JobpostingApp;
+import leyanessantiago.jobposting.domain.Advertisement;
 import leyanessantiago.jobposting.domain.Candidate;
 import leyanessantiago.jobposting.repository.CandidateRepository;
-import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.service.JobApplicationCounters;
+import leyanessantiago.jobposting.service.JobApplicationImportService;
+import leyanessantiago.jobposting.service.JobApplicationService;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
+import leyanessantiago.jobposting.service.dto.JobApplicationImportDTO;
 import leyanessantiago.jobposting.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -24,10 +29,13 @@ import org.springframework.validation.Validator;
 
 import javax.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static leyanessantiago.jobposting.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,13 +60,31 @@ public class CandidateResourceIT {
     private CandidateRepository candidateRepository;
 
     @Autowired
-    private ProfessionRepository professionRepository;
+    private ProfessionDictionary professionDictionary;
+
+    @Autowired
+    private JobApplicationCounters jobApplicationCounters;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private JobApplicationImportService jobApplicationImportService;
 
     @Mock
     private CandidateRepository candidateRepositoryMock;
 
     @Mock
-    private ProfessionRepository professionRepositoryMock;
+    private ProfessionDictionary professionDictionaryMock;
+
+    @Mock
+    private JobApplicationCounters jobApplicationCountersMock;
+
+    @Mock
+    private JobApplicationService jobApplicationServiceMock;
+
+    @Mock
+    private JobApplicationImportService jobApplicationImportServiceMock;
 
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
@@ -82,7 +108,8 @@ public class CandidateResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final CandidateResource candidateResource = new CandidateResource(candidateRepository, professionRepository);
+        final CandidateResource candidateResource = new CandidateResource(candidateRepository, professionDictionary, jobApplicationCounters, jobApplicationService,
+            jobApplicationImportService);
         this.restCandidateMockMvc = MockMvcBuilders.standaloneSetup(candidateResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -217,6 +244,77 @@ public class CandidateResourceIT {
         assertThat(candidateList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    @Transactional
+    public void createCandidateApplyingAgain() throws Exception {
+        Advertisement advertisement = AdvertisementResourceIT.createEntity(em);
+        em.persist(advertisement);
+        Advertisement otherAdvertisement = AdvertisementResourceIT.createEntity(em);
+        em.persist(otherAdvertisement);
+        candidateRepository.saveAndFlush(candidate.addAdvertisement(advertisement));
+        int databaseSizeBeforeCreate = candidateRepository.findAll().size();
+
+        // Applying twice for the same advertisement is rejected
+        Candidate application = createEntity(em).addAdvertisement(advertisement);
+        restCandidateMockMvc.perform(post("/api/candidates")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(application)))
+            .andExpect(status().isBadRequest());
+
+        // Applying for another advertisement appends the application to the existing candidate, returned with
+        // all their applications
+        em.clear();
+        application = createEntity(em).addAdvertisement(otherAdvertisement);
+        restCandidateMockMvc.perform(post("/api/candidates")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(application)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(candidate.getId().intValue()))
+            .andExpect(jsonPath("$.advertisements[*].id").value(containsInAnyOrder(
+                advertisement.getId().intValue(), otherAdvertisement.getId().intValue())));
+
+        assertThat(candidateRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+        em.clear();
+        assertThat(candidateRepository.findOneWithEagerRelationships(candidate.getId()).get().getAdvertisements())
+            .containsExactlyInAnyOrder(advertisement, otherAdvertisement);
+    }
+
+    @Test
+    @Transactional
+    public void importJobApplications() throws Exception {
+        Advertisement advertisement = AdvertisementResourceIT.createEntity(em);
+        em.persist(advertisement);
+        Advertisement otherAdvertisement = AdvertisementResourceIT.createEntity(em);
+        em.persist(otherAdvertisement);
+        candidateRepository.saveAndFlush(candidate.addAdvertisement(advertisement));
+        int databaseSizeBeforeImport = candidateRepository.findAll().size();
+
+        List<JobApplicationImportDTO> applications = Arrays.asList(
+            new JobApplicationImportDTO(DEFAULT_EMAIL, DEFAULT_FIRST_NAME, DEFAULT_LAST_NAME, advertisement.getId()),
+            new JobApplicationImportDTO(DEFAULT_EMAIL, DEFAULT_FIRST_NAME, DEFAULT_LAST_NAME, otherAdvertisement.getId()),
+            new JobApplicationImportDTO(UPDATED_EMAIL, UPDATED_FIRST_NAME, UPDATED_LAST_NAME, advertisement.getId()),
+            new JobApplicationImportDTO(UPDATED_EMAIL, UPDATED_FIRST_NAME, UPDATED_LAST_NAME, advertisement.getId()),
+            new JobApplicationImportDTO(UPDATED_EMAIL, DEFAULT_FIRST_NAME, UPDATED_LAST_NAME, otherAdvertisement.getId()),
+            new JobApplicationImportDTO(UPDATED_EMAIL, UPDATED_FIRST_NAME, UPDATED_LAST_NAME, Long.MAX_VALUE),
+            new JobApplicationImportDTO(null, UPDATED_FIRST_NAME, UPDATED_LAST_NAME, advertisement.getId()));
+
+        restCandidateMockMvc.perform(post("/api/candidates/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(applications)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("DUPLICATE", "CREATED", "CREATED", "DUPLICATE",
+                "NAME_MISMATCH", "ADVERTISEMENT_NOT_FOUND", "INVALID")))
+            .andExpect(jsonPath("$.[1].candidateId").value(candidate.getId().intValue()));
+
+        // Validate the Candidates and their applications in the database
+        assertThat(candidateRepository.findAll()).hasSize(databaseSizeBeforeImport + 1);
+        assertThat(candidateRepository.findOneWithEagerRelationships(candidate.getId()).get().getAdvertisements())
+            .containsExactlyInAnyOrder(advertisement, otherAdvertisement);
+        Candidate importedCandidate = candidateRepository.findByEmailWithEagerRelationships(UPDATED_EMAIL);
+        assertThat(importedCandidate.getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+        assertThat(importedCandidate.getAdvertisements()).containsExactly(advertisement);
+    }
+
     @Test
     @Transactional
     public void getAllCandidates() throws Exception {
@@ -235,7 +333,8 @@ public class CandidateResourceIT {
 
     @SuppressWarnings({"unchecked"})
     public void getAllCandidatesWithEagerRelationshipsIsEnabled() throws Exception {
-        CandidateResource candidateResource = new CandidateResource(candidateRepositoryMock, professionRepositoryMock);
+        CandidateResource candidateResource = new CandidateResource(candidateRepositoryMock, professionDictionaryMock, jobApplicationCountersMock,
+            jobApplicationServiceMock, jobApplicationImportServiceMock);
         when(candidateRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
 
         MockMvc restCandidateMockMvc = MockMvcBuilders.standaloneSetup(candidateResource)
@@ -252,7 +351,8 @@ public class CandidateResourceIT {
 
     @SuppressWarnings({"unchecked"})
     public void getAllCandidatesWithEagerRelationshipsIsNotEnabled() throws Exception {
-        CandidateResource candidateResource = new CandidateResource(candidateRepositoryMock, professionRepositoryMock);
+        CandidateResource candidateResource = new CandidateResource(candidateRepositoryMock, professionDictionaryMock, jobApplicationCountersMock,
+            jobApplicationServiceMock, jobApplicationImportServiceMock);
             when(candidateRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
             MockMvc restCandidateMockMvc = MockMvcBuilders.standaloneSetup(candidateResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
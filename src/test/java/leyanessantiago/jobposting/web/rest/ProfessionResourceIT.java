@@ -3,7 +3,9 @@ package leyanessantiago.jobposting.web.rest;
 import leyanessantiago.jobposting.JobpostingApp;
 import leyanessantiago.jobposting.domain.Profession;
 import leyanessantiago.jobposting.repository.ProfessionRepository;
+import leyanessantiago.jobposting.service.ProfessionDictionary;
 import leyanessantiago.jobposting.web.rest.errors.ExceptionTranslator;
+import leyanessantiago.jobposting.web.rest.util.KeysetPaginationUtil;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +41,9 @@ public class ProfessionResourceIT {
     @Autowired
     private ProfessionRepository professionRepository;
 
+    @Autowired
+    private ProfessionDictionary professionDictionary;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,7 +66,7 @@ public class ProfessionResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final ProfessionResource professionResource = new ProfessionResource(professionRepository);
+        final ProfessionResource professionResource = new ProfessionResource(professionRepository, professionDictionary);
         this.restProfessionMockMvc = MockMvcBuilders.standaloneSetup(professionResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -167,6 +172,30 @@ public class ProfessionResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(profession.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME.toString())));
     }
+
+    @Test
+    @Transactional
+    public void getAllProfessionsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        professionRepository.saveAndFlush(profession);
+        Profession otherProfession = new Profession().name(UPDATED_NAME);
+        professionRepository.saveAndFlush(otherProfession);
+        String cursor = KeysetPaginationUtil.encodeCursor(profession.getId());
+
+        // Get the professions after the first one
+        restProfessionMockMvc.perform(get("/api/professions?after=" + cursor + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(otherProfession.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllProfessionsWithInvalidCursor() throws Exception {
+        restProfessionMockMvc.perform(get("/api/professions?after=invalid&size=1"))
+            .andExpect(status().isBadRequest());
+    }
     
     @Test
     @Transactional